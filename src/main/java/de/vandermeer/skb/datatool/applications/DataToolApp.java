@@ -15,6 +15,15 @@
 
 package de.vandermeer.skb.datatool.applications;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+
 import de.vandermeer.execs.ExecS_Application;
 import de.vandermeer.execs.options.AO_DirectoryIn;
 import de.vandermeer.execs.options.AO_FileOut;
@@ -25,9 +34,18 @@ import de.vandermeer.skb.base.console.Skb_Console;
 import de.vandermeer.skb.datatool.applications.options.AO_DataEntryType;
 import de.vandermeer.skb.datatool.applications.options.AO_DataTarget;
 import de.vandermeer.skb.datatool.applications.options.AO_KeySeparator;
+import de.vandermeer.skb.datatool.applications.options.AO_LinkResolution;
+import de.vandermeer.skb.datatool.applications.options.AO_LoadThreads;
+import de.vandermeer.skb.datatool.applications.options.AO_SkipUnchanged;
+import de.vandermeer.skb.datatool.applications.options.AO_Snapshot;
+import de.vandermeer.skb.datatool.applications.options.AO_Watch;
 import de.vandermeer.skb.datatool.backend.BackendLoader;
+import de.vandermeer.skb.datatool.backend.BackendWatcher;
 import de.vandermeer.skb.datatool.backend.BackendWriter;
+import de.vandermeer.skb.datatool.commons.DataEntryType;
+import de.vandermeer.skb.datatool.commons.LinkResolution;
 import de.vandermeer.skb.datatool.commons.TypeLoaderMap;
+import de.vandermeer.skb.datatool.commons.target.DataTarget;
 import de.vandermeer.skb.datatool.entries.acronyms.AcronymEntryLoader;
 import de.vandermeer.skb.datatool.entries.affiliations.AffiliationEntryLoader;
 import de.vandermeer.skb.datatool.entries.affiliations.AffiliationtypeEntryLoader;
@@ -83,6 +101,21 @@ public class DataToolApp implements ExecS_Application {
 	/** The options for the key separator. */
 	protected AO_KeySeparator optionKeySep = new AO_KeySeparator(':', "The separator for key elements, default is ':'.");
 
+	/** The option for the number of threads used to parse entry files. */
+	protected AO_LoadThreads optionLoadThreads = new AO_LoadThreads(1, "The number of threads used to parse entry files, default is 1 (sequential load). Entries are merged in file order, so results are the same for any number of threads.");
+
+	/** The option for the mode of resolving links between entries. */
+	protected AO_LinkResolution optionLinks = new AO_LinkResolution(LinkResolution.EAGER, "The mode for resolving SKB links between entries. With 'eager' (default), links are resolved while entries are loaded. With 'batch', links are resolved in one pass after all types are loaded, one data set per load thread. With 'lazy', a link is resolved when output generation first uses it, links that are never used are never resolved.");
+
+	/** The option for a snapshot file of loaded data sets. */
+	protected AO_Snapshot optionSnapshot = new AO_Snapshot("A file to store all loaded data sets in. If no input file and no setting has changed since the snapshot was written, data sets are restored from the snapshot instead of loaded from the input directory.");
+
+	/** The option for watch mode, regenerating output on changed input files. */
+	protected AO_Watch optionWatch = new AO_Watch("Keeps running after the output is generated, watches the input directory, and regenerates the output when entry files change. Only changed files and types depending on them are loaded again.");
+
+	/** The option for skipping unchanged output files. */
+	protected AO_SkipUnchanged optionSkipUnchanged = new AO_SkipUnchanged("Writes output to a temporary file and replaces the output file only if the content changed, so that the modification time of an output file changes only with its content. Has no effect for output to standard out.");
+
 	/** Flag for verbose mode, true means on, false means off. */
 	boolean verbose;
 
@@ -103,6 +136,11 @@ public class DataToolApp implements ExecS_Application {
 		this.cli.addOption(this.optionFileOut);
 		this.cli.addOption(this.optionVerbose);
 		this.cli.addOption(this.optionKeySep);
+		this.cli.addOption(this.optionLoadThreads);
+		this.cli.addOption(this.optionLinks);
+		this.cli.addOption(this.optionSnapshot);
+		this.cli.addOption(this.optionWatch);
+		this.cli.addOption(this.optionSkipUnchanged);
 
 		this.tlMap = new TypeLoaderMap();
 		this.tlMap.put(new AcronymEntryLoader());
@@ -137,32 +175,44 @@ public class DataToolApp implements ExecS_Application {
 		}
 
 		try{
-			BackendLoader bl = new BackendLoader(this.tlMap, this.optionDirIn.getValue(), this.getAppName(), this.optionKeySep.getValue(), this.verbose);
-			bl.setType(this.optionType.getValue());
-
-			if(this.optionTarget.getValue()==null){
+			List<String> targetNames = this.optionTarget.getTargets();
+			if(targetNames.size()==0){
 				if(this.verbose){
 					Skb_Console.conInfo("{}: no target given, will not generate output", new Object[]{this.getAppName()});
 				}
-			}
-			else{
-				bl.setTarget(this.optionTarget.getValue());
-			}
-
-			if(bl.getTarget()==null && this.optionFileOut.getValue()!=null){
-				if(this.verbose){
+				if(this.optionFileOut.getValue()!=null && this.verbose){
 					Skb_Console.conInfo("{}: no target given but output file specified - will ignore output file", new Object[]{this.getAppName()});
 				}
 			}
 
-			bl.setCs();
-			BackendWriter bw = new BackendWriter(this.optionFileOut.getValue(), bl.getCs());
-			if(this.verbose){
-				Skb_Console.conInfo("{}: processing <{}> {}", new Object[]{this.getAppName(), bl.getType().getType(), bw.getOutputMode()});
-			}
+			List<List<DataTarget>> groups = this.groupTargets(this.optionType.getValue(), targetNames);
+			Validate.validState(groups.size()<2 || !this.optionWatch.inWatchMode(), "watch mode requires targets with the same character conversion, found <%d> different ones", groups.size());
 
-			bl.loadEntry();
-			bw.writeOutput(bl);
+			for(List<DataTarget> group : groups){
+				DataTarget first = group.get(0);
+				String snapshot = this.optionSnapshot.getValue();
+				if(snapshot!=null && groups.size()>1){
+					snapshot = snapshot + "." + first.getDefinition().getTargetName();
+				}
+				BackendLoader bl = this.newLoader(first, snapshot);
+
+				List<BackendWriter> writers = new ArrayList<>();
+				for(DataTarget target : group){
+					BackendWriter bw = new BackendWriter(this.getFileName(target, groups), bl.getCs(), target);
+					bw.setSkipUnchanged(this.optionSkipUnchanged.skipUnchanged());
+					if(this.verbose){
+						Skb_Console.conInfo("{}: processing <{}> {}", new Object[]{this.getAppName(), bl.getType().getType(), bw.getOutputMode()});
+					}
+					writers.add(bw);
+				}
+
+				bl.loadEntry();
+				BackendWriter.writeOutput(writers, bl, Math.max(bl.getCs().getLoadThreads(), Math.min(writers.size(), Runtime.getRuntime().availableProcessors())));
+
+				if(this.optionWatch.inWatchMode()){
+					new BackendWatcher(bl, writers, BackendWatcher.DEFAULT_DEBOUNCE).watch();
+				}
+			}
 		}
 		catch(Exception ex){
 			Skb_Console.conError("{}: {}", new Object[]{this.getAppName(), ex.getMessage()});
@@ -179,6 +229,90 @@ ex.printStackTrace();
 		return ret;
 	}
 
+	/**
+	 * Creates and configures a backend loader for the selected type and a target.
+	 * @param target the target for loading, null if none
+	 * @param snapshot snapshot file name, null if none
+	 * @return new loader with core settings
+	 * @throws IllegalArgumentException if any option is not valid
+	 */
+	BackendLoader newLoader(DataTarget target, String snapshot){
+		BackendLoader bl = new BackendLoader(this.tlMap, this.optionDirIn.getValue(), this.getAppName(), this.optionKeySep.getValue(), this.verbose);
+		bl.setType(this.optionType.getValue());
+		if(target!=null){
+			bl.setTarget(target);
+		}
+
+		if(this.optionLoadThreads.getValue()!=null){
+			bl.setLoadThreads(this.optionLoadThreads.getValue());
+		}
+		if(this.optionLinks.getValue()!=null){
+			bl.setLinkResolution(this.optionLinks.getValue());
+		}
+		bl.setSnapshot(snapshot, APP_VERSION);
+		bl.setIncremental(this.optionWatch.inWatchMode());
+
+		bl.setCs();
+		return bl;
+	}
+
+	/**
+	 * Groups targets that can be written from the same loaded data sets.
+	 * Loading depends on a target's character translation and excluded characters, targets with the same of both share one load.
+	 * @param type the selected entry type
+	 * @param targetNames names of the selected targets
+	 * @return groups of targets in the order of the first target of each group, a single group with a null target if no target is selected
+	 * @throws IllegalArgumentException if the type is not supported or does not support a target
+	 */
+	List<List<DataTarget>> groupTargets(String type, List<String> targetNames){
+		List<List<DataTarget>> ret = new ArrayList<>();
+		if(targetNames.size()==0){
+			ret.add(Collections.singletonList((DataTarget)null));
+			return ret;
+		}
+
+		DataEntryType dt = null;
+		for(DataEntryType sdet : this.tlMap.getMap().keySet()){
+			if(sdet.getType().equals(type)){
+				dt = sdet;
+				break;
+			}
+		}
+		Validate.notNull(dt, "unsupported type <%s>", type);
+
+		Map<String, List<DataTarget>> groups = new LinkedHashMap<>();
+		for(String name : targetNames){
+			DataTarget target = dt.getSupportedTargets().get(name);
+			Validate.notNull(target, "type <%s> does not support target <%s>", dt.getType(), name);
+			String key = target.getDefinition().getTranslationTarget() + "|" + Arrays.toString(target.getDefinition().getExcluded());
+			groups.computeIfAbsent(key, k -> new ArrayList<>()).add(target);
+		}
+		ret.addAll(groups.values());
+		return ret;
+	}
+
+	/**
+	 * Returns the output file name for a target, without extension.
+	 * If another selected target has the same file extension, the target name is added to the file name.
+	 * @param target the target, null if none
+	 * @param groups all selected targets
+	 * @return output file name, null if no output file is set
+	 */
+	String getFileName(DataTarget target, List<List<DataTarget>> groups){
+		String ret = this.optionFileOut.getValue();
+		if(ret==null || target==null){
+			return ret;
+		}
+		for(List<DataTarget> group : groups){
+			for(DataTarget other : group){
+				if(other!=target && other.getDefinition().getExtension().equals(target.getDefinition().getExtension())){
+					return ret + "-" + target.getDefinition().getTargetName();
+				}
+			}
+		}
+		return ret;
+	}
+
 	@Override
 	public String getAppName() {
 		return APP_NAME;
@@ -208,6 +342,11 @@ ex.printStackTrace();
 				this.optionTarget,
 				this.optionVerbose,
 				this.optionKeySep,
+				this.optionLoadThreads,
+				this.optionLinks,
+				this.optionSnapshot,
+				this.optionWatch,
+				this.optionSkipUnchanged,
 			};
 	}
 
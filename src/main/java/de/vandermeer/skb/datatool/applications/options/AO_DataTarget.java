@@ -15,11 +15,15 @@
 
 package de.vandermeer.skb.datatool.applications.options;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
 import org.apache.commons.cli.Option;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.text.StrBuilder;
 
 import de.vandermeer.execs.options.AbstractApplicationOption;
@@ -45,11 +49,11 @@ public class AO_DataTarget extends AbstractApplicationOption<String> {
 	 * @throws IllegalArgumentException - if description parameter is empty
 	 */
 	public AO_DataTarget(boolean required, TypeLoaderMap tlMap){
-		super("specifies a target for output generation and character conversion", "###");
+		super("specifies one or more targets (separated by comma) for output generation and character conversion", "###");
 
 		Option.Builder builder = Option.builder("t");
 		builder.longOpt("target");
-		builder.hasArg().argName("TARGET");
+		builder.hasArg().argName("TARGET[,TARGET]");
 		builder.required(required);
 		this.setCliOption(builder.build());
 		this.tlMap = tlMap;
@@ -63,6 +67,22 @@ public class AO_DataTarget extends AbstractApplicationOption<String> {
 		return value.toString();
 	}
 
+	/**
+	 * Returns all targets given in the option value.
+	 * @return list of target names in the given order without duplicates, empty if none set
+	 */
+	public List<String> getTargets(){
+		Set<String> ret = new LinkedHashSet<>();
+		if(this.getValue()!=null){
+			for(String target : StringUtils.split(this.getValue(), ',')){
+				if(!StringUtils.isBlank(target)){
+					ret.add(target.trim());
+				}
+			}
+		}
+		return new ArrayList<>(ret);
+	}
+
 	@Override
 	public String getDescriptionLong(){
 		StrBuilder ret = new StrBuilder(50);
@@ -78,6 +98,11 @@ public class AO_DataTarget extends AbstractApplicationOption<String> {
 		ret.append("The selected target must support the selected data entry type. ");
 		ret.appendNewLine();
 
+		ret.append("Several targets can be given, separated by comma. ");
+		ret.append("Data is then loaded once for all targets with the same character conversion, and output for these targets is generated in parallel. ");
+		ret.append("Each output file is named after the output file name and the target's file extension, targets with the same extension add the target name to the file name. ");
+		ret.appendNewLine();
+
 		ret.append("Available targets are: ");
 		ret.appendNewLine();
 		Map<String, Set<String>> targets = this.tlMap.getTargets();
@@ -0,0 +1,61 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.applications.options;
+
+import org.apache.commons.cli.Option;
+import org.apache.commons.lang3.StringUtils;
+
+import de.vandermeer.execs.options.AbstractApplicationOption;
+import de.vandermeer.skb.datatool.commons.LinkResolution;
+
+/**
+ * Application option "links", the mode for resolving SKB links.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class AO_LinkResolution extends AbstractApplicationOption<LinkResolution> {
+
+	/**
+	 * Returns the new option.
+	 * @param defaultValue option default value
+	 * @param longDescription option long description
+	 * @throws NullPointerException - if description parameter is null
+	 * @throws IllegalArgumentException - if description parameter is empty
+	 */
+	public AO_LinkResolution(LinkResolution defaultValue, String longDescription){
+		super(defaultValue, "mode for resolving links between entries, one of " + StringUtils.join(LinkResolution.values(), ", ").toLowerCase(), longDescription);
+
+		Option.Builder builder = Option.builder();
+		builder.longOpt("links");
+		builder.hasArg().argName("MODE");
+		builder.required(false);
+		this.setCliOption(builder.build());
+	}
+
+	@Override
+	public LinkResolution convertValue(Object value) {
+		if(value instanceof LinkResolution){
+			return (LinkResolution)value;
+		}
+		else if(value!=null){
+			return LinkResolution.fromName(value.toString());
+		}
+		return null;
+	}
+
+}
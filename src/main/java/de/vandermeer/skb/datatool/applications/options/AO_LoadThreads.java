@@ -0,0 +1,65 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.applications.options;
+
+import org.apache.commons.cli.Option;
+
+import de.vandermeer.execs.options.AbstractApplicationOption;
+
+/**
+ * Application option "load-threads", the number of threads used to parse entry files.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class AO_LoadThreads extends AbstractApplicationOption<Integer> {
+
+	/**
+	 * Returns the new option.
+	 * @param defaultValue option default value
+	 * @param longDescription option long description
+	 * @throws NullPointerException - if description parameter is null
+	 * @throws IllegalArgumentException - if description parameter is empty
+	 */
+	public AO_LoadThreads(Integer defaultValue, String longDescription){
+		super(defaultValue, "number of threads for parsing entry files, 1 for sequential load", longDescription);
+
+		Option.Builder builder = Option.builder();
+		builder.longOpt("load-threads");
+		builder.hasArg().argName("THREADS");
+		builder.required(false);
+		this.setCliOption(builder.build());
+	}
+
+	@Override
+	public Integer convertValue(Object value) {
+		if(value instanceof Integer){
+			return (Integer)value;
+		}
+		else if(value instanceof String){
+			try{
+				int ret = Integer.parseInt((String)value);
+				return (ret<1)?null:ret;
+			}
+			catch(NumberFormatException nfe){
+				return null;
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,63 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.applications.options;
+
+import org.apache.commons.cli.Option;
+import org.apache.commons.lang3.BooleanUtils;
+
+import de.vandermeer.execs.options.AbstractApplicationOption;
+
+/**
+ * Application option "watch", keeps running after the first output and regenerates it when input files change.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class AO_Watch extends AbstractApplicationOption<Boolean> {
+
+	/**
+	 * Returns the new option.
+	 * @param longDescription option long description
+	 * @throws NullPointerException - if description parameter is null
+	 * @throws IllegalArgumentException - if description parameter is empty
+	 */
+	public AO_Watch(String longDescription){
+		super(false, "watch the input directory and regenerate output on changes", longDescription);
+
+		Option.Builder builder = Option.builder();
+		builder.longOpt("watch");
+		builder.required(false);
+		this.setCliOption(builder.build());
+	}
+
+	@Override
+	public Boolean convertValue(Object value) {
+		if(value==null){
+			return false;
+		}
+		return BooleanUtils.toBoolean(value.toString());
+	}
+
+	/**
+	 * Tests if the option is set.
+	 * @return true if watch mode is requested, false otherwise
+	 */
+	public boolean inWatchMode(){
+		return this.inCli();
+	}
+
+}
@@ -161,7 +161,7 @@ public class BackendLatexAcrLog {
 			}
 		}
 		for(String a : remove){
-			this.bl.getMainDataSet().getMap().remove(a);
+			this.bl.getMainDataSet().removeEntry(a);
 		}
 		AcronymUtilities.setLongestAcr((DataSet<AcronymEntry>)this.bl.getMainDataSet());
 
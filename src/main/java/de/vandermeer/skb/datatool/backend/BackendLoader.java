@@ -15,16 +15,26 @@
 
 package de.vandermeer.skb.datatool.backend;
 
-import org.apache.commons.io.filefilter.DirectoryFileFilter;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
 import org.apache.commons.lang3.Validate;
 
-import de.vandermeer.skb.base.info.CommonsDirectoryWalker;
-import de.vandermeer.skb.base.info.DirectoryLoader;
+import de.vandermeer.skb.base.console.Skb_Console;
 import de.vandermeer.skb.datatool.commons.CoreSettings;
+import de.vandermeer.skb.datatool.commons.DataEntry;
 import de.vandermeer.skb.datatool.commons.DataEntryType;
 import de.vandermeer.skb.datatool.commons.DataSet;
 import de.vandermeer.skb.datatool.commons.DataSetLoader;
+import de.vandermeer.skb.datatool.commons.DirectoryIndex;
+import de.vandermeer.skb.datatool.commons.LinkResolution;
 import de.vandermeer.skb.datatool.commons.LoadedTypeMap;
+import de.vandermeer.skb.datatool.commons.LoadedTypeMapSnapshot;
+import de.vandermeer.skb.datatool.commons.StringPool;
+import de.vandermeer.skb.datatool.commons.TypeLoadScheduler;
 import de.vandermeer.skb.datatool.commons.TypeLoaderMap;
 import de.vandermeer.skb.datatool.commons.target.DataTarget;
 
@@ -55,6 +65,9 @@ public class BackendLoader {
 	/** The input directory. */
 	private String inputDir;
 
+	/** Index of all entry files in the input directory, shared by all loaders. */
+	private DirectoryIndex index;
+
 	/** The key separator. */
 	private char keySeparator;
 
@@ -64,6 +77,24 @@ public class BackendLoader {
 	/** Application name for logging. */
 	private String appName;
 
+	/** Number of threads for parsing entry files. */
+	private int loadThreads = 1;
+
+	/** File name of the snapshot of loaded data sets, null if not used. */
+	private String snapshotFile;
+
+	/** Tool version, part of the snapshot fingerprint. */
+	private String toolVersion;
+
+	/** Flag for incremental reload of changed files. */
+	private boolean incremental;
+
+	/** Mode for resolving SKB links. */
+	private LinkResolution linkResolution = LinkResolution.EAGER;
+
+	/** All loaded data sets, null if nothing loaded yet. */
+	private LoadedTypeMap loadedTypes;
+
 	/**
 	 * Creates a new backend loader
 	 * @param tlMap supported type map
@@ -78,8 +109,8 @@ public class BackendLoader {
 		this.tlMap = tlMap;
 
 		Validate.notBlank(inputDirectory);
-		DirectoryLoader dl = new CommonsDirectoryWalker(inputDirectory, DirectoryFileFilter.INSTANCE, DirectoryFileFilter.INSTANCE);
-		Validate.validState(dl.getLoadErrors().size()==0, "errors reading from directory <%s>\n%s", inputDirectory, dl.getLoadErrors().render());
+		this.index = new DirectoryIndex(inputDirectory);
+		Validate.validState(this.index.getLoadErrors().size()==0, "errors reading from directory <%s>\n%s", inputDirectory, this.index.getLoadErrors().render());
 		this.inputDir = inputDirectory;
 
 		this.appName = appName;
@@ -144,15 +175,59 @@ public class BackendLoader {
 		this.target = target;
 	}
 
+	/**
+	 * Sets the number of threads used to parse entry files, must be called before the core settings are created.
+	 * @param loadThreads number of threads, 1 for sequential load
+	 * @throws IllegalArgumentException if the number of threads is smaller than 1
+	 */
+	public void setLoadThreads(int loadThreads){
+		Validate.isTrue(loadThreads>0, "number of load threads must be at least 1, found <%d>", loadThreads);
+		this.loadThreads = loadThreads;
+	}
+
+	/**
+	 * Sets a snapshot file for loaded data sets.
+	 * If the snapshot matches input directory and settings, data sets are restored from it, otherwise they are loaded from files and the snapshot is written.
+	 * @param snapshotFile the snapshot file name, null to not use a snapshot
+	 * @param toolVersion the version of the calling tool, a snapshot written by another version is not used
+	 */
+	public void setSnapshot(String snapshotFile, String toolVersion){
+		this.snapshotFile = snapshotFile;
+		this.toolVersion = toolVersion;
+	}
+
+	/**
+	 * Sets the flag for incremental reload, must be called before the core settings are created.
+	 * @param incremental true to re-parse only changed files on {@link #reload(Set)}, false to re-parse all files of reloaded types
+	 */
+	public void setIncremental(boolean incremental){
+		this.incremental = incremental;
+	}
+
+	/**
+	 * Sets the mode for resolving SKB links, must be called before the core settings are created.
+	 * @param linkResolution the mode
+	 * @throws IllegalArgumentException if the mode is null
+	 */
+	public void setLinkResolution(LinkResolution linkResolution){
+		Validate.notNull(linkResolution);
+		this.linkResolution = linkResolution;
+	}
+
 	/**
 	 * Sets the core settings.
 	 */
 	public void setCs(){
 		this.cs = new CoreSettings(this.keySeparator, this.verbose, this.appName, this.inputDir, this.target);
+		this.cs.setLoadThreads(this.loadThreads);
+		this.cs.setIncremental(this.incremental);
+		this.cs.setDirectoryIndex(this.index);
+		this.cs.setLinkResolution(this.linkResolution);
 	}
 
 	/**
 	 * Loads the entry.
+	 * If a snapshot is set and matches, all data sets are restored from it.
 	 * @throws IllegalArgumentException if any required argument is not valid
 	 */
 	public void loadEntry(){
@@ -162,7 +237,237 @@ public class BackendLoader {
 
 		this.dsl = this.tlMap.getLoader(this.type);
 		this.dsl.setCs(this.cs);
-		this.dsl.load(this.tlMap.getMap(), new LoadedTypeMap());
+
+		LoadedTypeMapSnapshot snapshot = this.newSnapshot();
+		if(snapshot!=null){
+			LoadedTypeMap loadedTypes = snapshot.read(this.tlMap, this.cs);
+			if(loadedTypes!=null && loadedTypes.containsKey(this.type)){
+				for(DataEntryType dt : loadedTypes.keySet()){
+					DataSetLoader<?> loader = this.tlMap.getLoader(dt);
+					loader.setCs(this.cs);
+					loader.setLoadedTypes(loadedTypes);
+					if(this.cs.getIncremental()){
+						setPreviousSet(loader, loadedTypes.get(dt));
+					}
+				}
+				this.loadedTypes = loadedTypes;
+				if(this.verbose){
+					Skb_Console.conInfo("{}: restored <{}> data sets from snapshot <{}>", new Object[]{this.appName, loadedTypes.keySet().size(), snapshot.getFile().getAbsolutePath()});
+				}
+				return;
+			}
+		}
+
+		LoadedTypeMap loadedTypes = new LoadedTypeMap();
+		this.load(loadedTypes);
+		this.loadedTypes = loadedTypes;
+
+		if(snapshot!=null){
+			this.writeSnapshot(snapshot, loadedTypes);
+		}
+	}
+
+	/**
+	 * Reloads data sets after entry files have changed.
+	 * All loaded types that are changed or require (directly or indirectly) a changed type are loaded again, all other data sets are kept.
+	 * Types that require another reloaded type are loaded from all files, since their entries link to entries of the old data set.
+	 * Other changed types are patched with changed files only if incremental reload is set.
+	 * The input directory is walked again first, to find added and removed files.
+	 * @param changed types with changed entry files
+	 * @return true if any data set was reloaded, false if no loaded type is affected
+	 * @throws IllegalArgumentException if no data sets have been loaded yet
+	 * @throws IllegalStateException if the input directory cannot be read
+	 */
+	public boolean reload(Set<DataEntryType> changed){
+		Validate.notNull(this.loadedTypes, "no data sets loaded, cannot reload");
+		Validate.notNull(changed);
+
+		Set<DataEntryType> affected = new HashSet<>();
+		for(DataEntryType dt : changed){
+			if(this.loadedTypes.containsKey(dt)){
+				affected.add(dt);
+			}
+		}
+		if(affected.size()==0){
+			return false;
+		}
+
+		Set<DataEntryType> dependents = new HashSet<>();
+		boolean added = true;
+		while(added){
+			added = false;
+			for(DataEntryType dt : this.loadedTypes.keySet()){
+				if(!dependents.contains(dt) && dt.getRequiredTypes()!=null){
+					for(DataEntryType rt : dt.getRequiredTypes()){
+						if(affected.contains(rt)){
+							dependents.add(dt);
+							affected.add(dt);
+							added = true;
+							break;
+						}
+					}
+				}
+			}
+		}
+
+		DirectoryIndex index = new DirectoryIndex(this.inputDir);
+		Validate.validState(index.getLoadErrors().size()==0, "errors reading from directory <%s>\n%s", this.inputDir, index.getLoadErrors().render());
+		this.index = index;
+		this.cs.setDirectoryIndex(index);
+
+		LoadedTypeMap loadedTypes = new LoadedTypeMap();
+		for(DataEntryType dt : this.loadedTypes.keySet()){
+			if(!affected.contains(dt)){
+				loadedTypes.put(dt, this.loadedTypes.get(dt));
+			}
+		}
+		for(DataEntryType dt : dependents){
+			this.tlMap.getLoader(dt).setPreviousSet(null);
+		}
+
+		if(this.verbose){
+			Skb_Console.conInfo("{}: reloading <{}> changed and <{}> dependent types", new Object[]{this.appName, affected.size() - dependents.size(), dependents.size()});
+		}
+		this.load(loadedTypes);
+		this.loadedTypes = loadedTypes;
+		return true;
+	}
+
+	/**
+	 * Sets a data set restored from a snapshot as the previous set of its loader, for incremental reload.
+	 * @param loader the loader of the data set type
+	 * @param ds the restored data set, of the type of the loader
+	 * @param <E> type of the data entry
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E extends DataEntry> void setPreviousSet(DataSetLoader<E> loader, DataSet<?> ds){
+		loader.setPreviousSet((DataSet<E>)ds);
+	}
+
+	/**
+	 * Loads the main type and all types it requires.
+	 * With more than one load thread, types that do not depend on each other are loaded concurrently.
+	 * Loading types, parsing files, and resolving links share one pool with the number of load threads, so a load never uses more threads than requested.
+	 * For batch link resolution, all link tokens are resolved after all types are loaded.
+	 * For lazy link resolution, all link tokens are checked after all types are loaded, so that dangling links are reported as load problems and not while rendering.
+	 * The string pool is cleared first, and the strings of the already loaded types are added to it again, so that it only holds strings of current entries.
+	 * In verbose mode, statistics of the string pool are reported for this load.
+	 * @param loadedTypes types that have been already loaded, all newly loaded types are added
+	 */
+	private void load(LoadedTypeMap loadedTypes){
+		this.cs.getStringPool().clear();
+		for(DataEntryType dt : loadedTypes.keySet()){
+			loadedTypes.get(dt).internStrings();
+		}
+
+		ForkJoinPool loadPool = new ForkJoinPool(this.cs.getLoadThreads());
+		this.cs.setLoadPool(loadPool);
+		try{
+			if(this.cs.getLoadThreads()>1){
+				new TypeLoadScheduler(this.tlMap, this.cs.getLoadThreads()).load(this.dsl, loadedTypes);
+			}
+			else{
+				this.dsl.load(this.tlMap.getMap(), loadedTypes);
+			}
+
+			if(this.cs.getLinkResolution()==LinkResolution.BATCH){
+				this.resolveLinks(loadedTypes, false);
+			}
+			else if(this.cs.getLinkResolution()==LinkResolution.LAZY){
+				this.resolveLinks(loadedTypes, true);
+			}
+		}
+		finally{
+			this.cs.setLoadPool(null);
+			loadPool.shutdown();
+		}
+
+		if(this.verbose){
+			StringPool pool = this.cs.getStringPool();
+			Skb_Console.conInfo("{}: pooled <{}> strings, shared <{}> duplicates in this load saving about <{}> bytes", new Object[]{this.appName, pool.size(), pool.getDuplicates(), pool.getSavedBytes()});
+		}
+	}
+
+	/**
+	 * Resolves (or only checks) all link tokens in all loaded data sets, one task per data set on the load pool of the core settings.
+	 * @param loadedTypes the loaded data sets
+	 * @param checkOnly true to only check that links can be resolved and keep the tokens, false to resolve them
+	 */
+	private void resolveLinks(LoadedTypeMap loadedTypes, boolean checkOnly){
+		long start = System.currentTimeMillis();
+		int links;
+		try{
+			links = this.cs.getLoadPool().submit(() -> loadedTypes.keySet().parallelStream().mapToInt(dt -> (checkOnly)?loadedTypes.get(dt).checkLinks():loadedTypes.get(dt).resolveLinks()).sum()).get();
+		}
+		catch(InterruptedException ie){
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while resolving links", ie);
+		}
+		catch(ExecutionException ee){
+			if(ee.getCause() instanceof RuntimeException){
+				throw (RuntimeException)ee.getCause();
+			}
+			throw new IllegalStateException("resolving links failed: " + ee.getMessage(), ee);
+		}
+
+		if(this.verbose){
+			Skb_Console.conInfo("{}: {} <{}> links in <{}> data sets in <{}> ms", new Object[]{this.appName, (checkOnly)?"checked":"resolved", links, loadedTypes.keySet().size(), System.currentTimeMillis()-start});
+		}
+	}
+
+	/**
+	 * Creates a snapshot object for the current input directory and settings.
+	 * @return new snapshot, null if no snapshot file is set or the fingerprint cannot be calculated
+	 */
+	private LoadedTypeMapSnapshot newSnapshot(){
+		if(this.snapshotFile==null){
+			return null;
+		}
+		try{
+			String fingerprint = LoadedTypeMapSnapshot.fingerprint(
+					this.inputDir,
+					this.index,
+					this.toolVersion,
+					this.type.getType(),
+					(this.target==null)?"":this.target.getDefinition().getTargetName(),
+					Character.toString(this.keySeparator),
+					this.cs.getLinkResolution().name()
+			);
+			return new LoadedTypeMapSnapshot(this.snapshotFile, fingerprint);
+		}
+		catch(IOException ioe){
+			Skb_Console.conError("{}: cannot calculate snapshot fingerprint for <{}>: {}", new Object[]{this.appName, this.inputDir, ioe.getMessage()});
+			return null;
+		}
+	}
+
+	/**
+	 * Writes loaded data sets to a snapshot, if loading reported no problems.
+	 * @param snapshot the snapshot to write to
+	 * @param loadedTypes the loaded data sets
+	 */
+	private void writeSnapshot(LoadedTypeMapSnapshot snapshot, LoadedTypeMap loadedTypes){
+		if(!loadedTypes.containsKey(this.type)){
+			return;
+		}
+		for(DataEntryType dt : loadedTypes.keySet()){
+			if(loadedTypes.get(dt).getErrorNumber()>0){
+				if(this.verbose){
+					Skb_Console.conInfo("{}: problems loading <{}>, not writing snapshot", new Object[]{this.appName, dt.getType()});
+				}
+				return;
+			}
+		}
+
+		try{
+			snapshot.write(loadedTypes);
+			if(this.verbose){
+				Skb_Console.conInfo("{}: wrote snapshot <{}>", new Object[]{this.appName, snapshot.getFile().getAbsolutePath()});
+			}
+		}
+		catch(IOException ioe){
+			Skb_Console.conError("{}: cannot write snapshot <{}>: {}", new Object[]{this.appName, snapshot.getFile().getAbsolutePath(), ioe.getMessage()});
+		}
 	}
 
 	/**
@@ -0,0 +1,228 @@
+/* Copyright 2015 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.backend;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.Validate;
+
+import de.vandermeer.skb.base.console.Skb_Console;
+import de.vandermeer.skb.datatool.commons.DataEntryType;
+
+/**
+ * Backend to watch the input directory and regenerate output when entry files change.
+ * Changes are collected until no further change happens for a debounce time, then all affected entry types are reloaded and the output is written again.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class BackendWatcher {
+
+	/** Default debounce time in milliseconds. */
+	public final static long DEFAULT_DEBOUNCE = 300;
+
+	/** The backend loader with loaded data sets. */
+	private final BackendLoader bl;
+
+	/** The backend writers for the output, one per target. */
+	private final List<BackendWriter> writers;
+
+	/** Time in milliseconds without further changes before a reload starts. */
+	private final long debounce;
+
+	/** Watched directories, mapped by their watch key. */
+	private final Map<WatchKey, Path> dirs;
+
+	/**
+	 * Creates a new backend watcher.
+	 * @param bl the backend loader, with data sets loaded
+	 * @param bw the backend writer
+	 * @param debounce time in milliseconds without further changes before a reload starts
+	 * @throws IllegalArgumentException if any required argument is not valid
+	 */
+	public BackendWatcher(BackendLoader bl, BackendWriter bw, long debounce){
+		this(bl, Collections.singletonList(bw), debounce);
+	}
+
+	/**
+	 * Creates a new backend watcher writing several targets.
+	 * @param bl the backend loader, with data sets loaded
+	 * @param writers the backend writers, one per target, all writing data sets of the loader
+	 * @param debounce time in milliseconds without further changes before a reload starts
+	 * @throws IllegalArgumentException if any required argument is not valid
+	 */
+	public BackendWatcher(BackendLoader bl, List<BackendWriter> writers, long debounce){
+		Validate.notNull(bl);
+		Validate.notNull(bl.getCs());
+		Validate.notEmpty(writers);
+		Validate.noNullElements(writers);
+		Validate.isTrue(debounce>=0, "debounce time cannot be negative, found <%d>", debounce);
+		this.bl = bl;
+		this.writers = new ArrayList<>(writers);
+		this.debounce = debounce;
+		this.dirs = new HashMap<>();
+	}
+
+	/**
+	 * Watches the input directory until the thread is interrupted.
+	 * Problems reloading or writing output are logged, watching then continues.
+	 * @throws IOException if the input directory cannot be watched
+	 */
+	public void watch() throws IOException{
+		try(WatchService ws = FileSystems.getDefault().newWatchService()){
+			this.register(ws, Paths.get(this.bl.getCs().getInputDir()));
+			if(this.bl.getCs().getVerbose()){
+				Skb_Console.conInfo("{}: watching <{}> directories in <{}> for changes", new Object[]{this.bl.getCs().getAppName(), this.dirs.size(), this.bl.getCs().getInputDir()});
+			}
+
+			while(true){
+				Set<Path> changed = new HashSet<>();
+				try{
+					WatchKey key = ws.take();
+					while(key!=null){
+						this.collect(ws, key, changed);
+						key = ws.poll(this.debounce, TimeUnit.MILLISECONDS);
+					}
+				}
+				catch(InterruptedException ie){
+					Thread.currentThread().interrupt();
+					return;
+				}
+				this.process(changed);
+			}
+		}
+	}
+
+	/**
+	 * Registers a directory and all its sub-directories with the watch service.
+	 * @param ws the watch service
+	 * @param start the top directory
+	 * @throws IOException if a directory cannot be registered
+	 */
+	void register(WatchService ws, Path start) throws IOException{
+		Files.walkFileTree(start, new SimpleFileVisitor<Path>(){
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				dirs.put(dir.register(ws, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	/**
+	 * Collects all changed paths of a watch key and resets the key.
+	 * New directories are registered, so files created in them are watched as well.
+	 * @param ws the watch service
+	 * @param key the signalled watch key
+	 * @param changed set to add changed paths to, a watched directory is added if events were lost
+	 */
+	void collect(WatchService ws, WatchKey key, Set<Path> changed){
+		Path dir = this.dirs.get(key);
+		if(dir==null){
+			key.cancel();
+			return;
+		}
+
+		for(WatchEvent<?> event : key.pollEvents()){
+			if(event.kind()==OVERFLOW){
+				changed.add(dir);
+				continue;
+			}
+			Path path = dir.resolve((Path)event.context());
+			changed.add(path);
+			if(event.kind()==ENTRY_CREATE && Files.isDirectory(path)){
+				try{
+					this.register(ws, path);
+				}
+				catch(IOException ioe){
+					Skb_Console.conError("{}: cannot watch directory <{}>: {}", new Object[]{this.bl.getCs().getAppName(), path, ioe.getMessage()});
+				}
+			}
+		}
+
+		if(!key.reset()){
+			this.dirs.remove(key);
+		}
+	}
+
+	/**
+	 * Reloads all entry types affected by changed paths and writes the output again.
+	 * @param changed the changed paths
+	 */
+	void process(Set<Path> changed){
+		Set<DataEntryType> types = new HashSet<>();
+		for(Path path : changed){
+			types.addAll(this.getTypes(path));
+		}
+		if(types.size()==0){
+			return;
+		}
+
+		try{
+			if(this.bl.reload(types)){
+				BackendWriter.writeOutput(this.writers, this.bl, Math.max(this.bl.getCs().getLoadThreads(), this.writers.size()));
+				if(this.bl.getCs().getVerbose()){
+					Skb_Console.conInfo("{}: regenerated output after changes in <{}> files", new Object[]{this.bl.getCs().getAppName(), changed.size()});
+				}
+			}
+		}
+		catch(Exception ex){
+			Skb_Console.conError("{}: regenerating output failed: {}", new Object[]{this.bl.getCs().getAppName(), ex.getMessage()});
+		}
+	}
+
+	/**
+	 * Returns the entry types a changed path can affect.
+	 * An entry file affects the type with the matching file extension, a directory (created, deleted, or with lost events) affects all types.
+	 * @param path the changed path
+	 * @return affected types, empty if none
+	 */
+	Set<DataEntryType> getTypes(Path path){
+		Set<DataEntryType> ret = new HashSet<>();
+		String name = path.getFileName().toString();
+		boolean isDir = Files.isDirectory(path) || this.dirs.containsValue(path);
+		for(DataEntryType type : this.bl.getTlMap().getMap().keySet()){
+			if(isDir || name.endsWith("." + type.getInputFileExtension() + ".json")){
+				ret.add(type);
+			}
+		}
+		return ret;
+	}
+}
@@ -15,24 +15,38 @@
 
 package de.vandermeer.skb.datatool.backend;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
 
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.commons.lang3.Validate;
+import org.stringtemplate.v4.AutoIndentWriter;
 import org.stringtemplate.v4.ST;
 import org.stringtemplate.v4.STGroup;
 
+import de.vandermeer.skb.base.console.Skb_Console;
 import de.vandermeer.skb.base.info.FileTarget;
-import de.vandermeer.skb.base.info.STGroupValidator;
-import de.vandermeer.skb.base.info.StgFileLoader;
 import de.vandermeer.skb.base.utils.collections.Skb_CollectionTransformer;
 import de.vandermeer.skb.datatool.commons.CoreSettings;
 import de.vandermeer.skb.datatool.commons.DataEntry;
 import de.vandermeer.skb.datatool.commons.DataSet;
+import de.vandermeer.skb.datatool.commons.target.DataTarget;
 
 /**
  * Backend to write templates to file.
@@ -43,15 +57,30 @@ import de.vandermeer.skb.datatool.commons.DataSet;
  */
 public class BackendWriter {
 
+	/** Size of the buffer for rendering templates to file or standard out, in characters. */
+	public final static int WRITE_BUFFER_SIZE = 64 * 1024;
+
+	/** Optional template rendered before all entries in partitioned mode. */
+	public final static String ST_HEADER = "header";
+
+	/** Template rendering a slice of entries, if defined the writer uses partitioned mode. */
+	public final static String ST_ENTRY_CHUNK = "entryChunk";
+
+	/** Optional template rendered between two slices of entries in partitioned mode. */
+	public final static String ST_ENTRY_SEPARATOR = "entrySeparator";
+
+	/** Optional template rendered after all entries in partitioned mode. */
+	public final static String ST_FOOTER = "footer";
+
+	/** Number of entries rendered by one task in partitioned mode. */
+	public final static int CHUNK_SIZE = 1024;
+
 	/** The original file name. */
 	private String fileName;
 
 	/** The final file name to write to. */
 	private String fileNameFinal;
 
-	/** The loader for STG files. */
-	private StgFileLoader stgLoader;
-
 	/** Local STG. */
 	private STGroup stg;
 
@@ -61,6 +90,15 @@ public class BackendWriter {
 	/** Core settings. */
 	private CoreSettings cs;
 
+	/** The target to write, null if none. */
+	private DataTarget target;
+
+	/** Flag for skipping unchanged output, true to replace the output file only if the content changed. */
+	private boolean skipUnchanged;
+
+	/** Stream of the last file write, null if none written. */
+	private ReplaceIfChangedOutputStream lastOutput;
+
 	/** Expected chunks for the ST template. */
 	private final Map<String, Set<String>> expectedStChunks = new HashMap<String, Set<String>>() {private static final long serialVersionUID = 1L;{
 		put("build", new HashSet<String>() {private static final long serialVersionUID = 1L;{
@@ -76,13 +114,26 @@ public class BackendWriter {
 	 * @throws IllegalArgumentException if any required argument is not valid
 	 */
 	public BackendWriter(String fileName, CoreSettings cs){
+		this(fileName, cs, (cs==null)?null:cs.getTarget());
+	}
+
+	/**
+	 * Creates a new backend writer for a target other than the target of the core settings.
+	 * This allows writing several targets from data sets loaded once, the target must use the same translation and excluded characters as the target used for loading.
+	 * @param fileName the output file name, without extension
+	 * @param cs the core settings for the writer
+	 * @param target the target to write, null for none
+	 * @throws IllegalArgumentException if any required argument is not valid
+	 */
+	public BackendWriter(String fileName, CoreSettings cs, DataTarget target){
 		Validate.notNull(cs);
 		this.cs = cs;
+		this.target = target;
 
 		if(fileName!=null){
 			this.fileName = fileName;
-			if(this.cs.getTarget()!=null){
-				this.fileNameFinal = fileName + "." + cs.getTarget().getDefinition().getExtension();
+			if(this.target!=null){
+				this.fileNameFinal = fileName + "." + this.target.getDefinition().getExtension();
 			}
 			else{
 				this.fileNameFinal = fileName;
@@ -93,37 +144,61 @@ public class BackendWriter {
 			Validate.validState(this.fileTarget.isValid(), "errors writing to file <%s>\n%s", this.fileName, this.fileTarget.getInitError().render());
 		}
 
-		if(cs.getTarget()!=null){
-			this.stgLoader = new StgFileLoader(cs.getTarget().getStgFileName());
-			Validate.validState(this.stgLoader.getLoadErrors().size()==0, "problem creating STG loader for file <%s>\n%s", cs.getTarget().getStgFileName(), this.stgLoader.getLoadErrors().render());
-
-			STGroup stg = this.stgLoader.load();
-			Validate.validState(this.stgLoader.getLoadErrors().size()==0, "errors loading STG file <%s>\n%s", cs.getTarget().getStgFileName(), this.stgLoader.getLoadErrors().render());
-			Validate.notNull(stg, "unknown error loading STG file <%s>", cs.getTarget().getStgFileName());
-
-			STGroupValidator stgVal = new STGroupValidator(stg, this.expectedStChunks);
-			Validate.validState(stgVal.getValidationErrors().size()==0, "STG validation errors for file <%s>\n%s", cs.getTarget().getStgFileName(), stgVal.getValidationErrors().render());
-
-			this.stg = stg;
-			Validate.notNull(this.stg);
+		if(this.target!=null){
+			this.stg = STGroupCache.get(this.target.getStgFileName(), this.expectedStChunks);
 		}
 	}
 
 	/**
 	 * Writes output.
+	 * Templates are rendered directly to a temporary file (or standard out), so the output is never created as a single string, the output file is only replaced once all output is written.
+	 * Partitioned output is rendered on a pool with as many threads as the core settings use for loading.
 	 * @param bl the backend loader
 	 * @throws IllegalArgumentException if any required argument is not valid
 	 * @throws IOException if writing to a file failed
 	 */
 	public void writeOutput(BackendLoader bl) throws IOException{
 		Validate.notNull(bl);
+		if(!this.isPartitioned() || this.cs.getLoadThreads()<2){
+			this.writeOutput(bl, null);
+			return;
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(this.cs.getLoadThreads());
+		try{
+			this.writeOutput(bl, pool);
+		}
+		finally{
+			if(pool!=null){
+				pool.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * Writes output, rendering partitioned output on a given pool.
+	 * @param bl the backend loader
+	 * @param pool pool to render entry chunks on, null to render them in the calling thread
+	 * @throws IllegalArgumentException if any required argument is not valid
+	 * @throws IOException if writing to a file failed
+	 */
+	void writeOutput(BackendLoader bl, ForkJoinPool pool) throws IOException{
+		Validate.notNull(bl);
+		this.lastOutput = null;
 		String toWrite = null;
 
-		if(this.cs.getTarget()!=null){
+		if(this.target!=null){
+			if(this.isPartitioned() && bl.getMainDataSet()!=null){
+				this.renderPartitioned(bl, pool);
+				this.reportOutput();
+				return;
+			}
 
 			ST st = this.fillTemplate(bl);
 			if(st!=null){
-				toWrite = st.render();
+				this.render(st);
+				this.reportOutput();
+				return;
 			}
 		}
 		else{
@@ -131,18 +206,234 @@ public class BackendWriter {
 		}
 
 		if(toWrite!=null){
-			if(this.fileTarget!=null && this.fileTarget.asFile()!=null){
-				FileUtils.write(this.fileTarget.asFile(), toWrite, "UTF-8");
-			}
-			else{
-				System.out.println(toWrite);
+			try(Writer writer = this.openWriter()){
+				writer.write(toWrite);
+				this.finish(writer);
 			}
+			this.reportOutput();
 		}
 		else{
 			throw new IllegalArgumentException("failed to create output string, tried ST and Transformer");
 		}
 	}
 
+	/**
+	 * Reports the result of the last file write in verbose mode, if unchanged output is skipped.
+	 */
+	void reportOutput(){
+		if(!this.skipUnchanged || this.lastOutput==null || this.lastOutput.isChanged()==null || !this.cs.getVerbose()){
+			return;
+		}
+		if(this.lastOutput.isChanged()){
+			Skb_Console.conInfo("{}: wrote <{}>", new Object[]{this.cs.getAppName(), this.fileTarget.getAbsoluteName()});
+		}
+		else{
+			Skb_Console.conInfo("{}: <{}> unchanged, not written", new Object[]{this.cs.getAppName(), this.fileTarget.getAbsoluteName()});
+		}
+	}
+
+	/**
+	 * Writes output for several writers (usually one per target) from the data sets of one loader.
+	 * Writers run in parallel on a pool, since writing only reads the loaded data sets.
+	 * Partitioned output is rendered on the same pool, so writing never uses more threads than requested.
+	 * If any writer writes to standard out, all writers run one after another in list order, so that outputs are not mixed.
+	 * @param writers the writers
+	 * @param bl the backend loader
+	 * @param threads number of threads for writing, shared by writers running in parallel and the rendering of partitioned output
+	 * @throws IllegalArgumentException if any required argument is not valid
+	 * @throws IOException if writing to a file failed
+	 */
+	public static void writeOutput(List<BackendWriter> writers, BackendLoader bl, int threads) throws IOException{
+		Validate.noNullElements(writers);
+		Validate.notNull(bl);
+		Validate.isTrue(threads>0, "number of write threads must be at least 1, found <%d>", threads);
+
+		boolean sequential = (threads==1 || writers.size()<2);
+		for(BackendWriter bw : writers){
+			if(bw.fileTarget==null){
+				sequential = true;
+			}
+		}
+		ForkJoinPool pool = (threads>1)?new ForkJoinPool(threads):null;
+		try{
+			if(sequential){
+				for(BackendWriter bw : writers){
+					bw.writeOutput(bl, pool);
+				}
+				return;
+			}
+
+			List<Future<Void>> futures = new ArrayList<>();
+			for(BackendWriter bw : writers){
+				futures.add(pool.submit(() -> {
+					bw.writeOutput(bl, pool);
+					return null;
+				}));
+			}
+			for(Future<Void> future : futures){
+				future.get();
+			}
+		}
+		catch(InterruptedException ie){
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while writing output", ie);
+		}
+		catch(ExecutionException ee){
+			if(ee.getCause() instanceof IOException){
+				throw (IOException)ee.getCause();
+			}
+			if(ee.getCause() instanceof RuntimeException){
+				throw (RuntimeException)ee.getCause();
+			}
+			throw new IllegalStateException("writing output failed: " + ee.getMessage(), ee);
+		}
+		finally{
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Renders a template to the output file, or to standard out if no file is set.
+	 * @param st the template to render
+	 * @throws IOException if writing failed
+	 */
+	void render(ST st) throws IOException{
+		try(Writer writer = this.openWriter()){
+			st.write(new AutoIndentWriter(writer));
+			this.finish(writer);
+		}
+	}
+
+	/**
+	 * Tests if the template group supports partitioned rendering, that is it defines an entry chunk template.
+	 * @return true if output is rendered in partitions, false if the build template is used
+	 */
+	public boolean isPartitioned(){
+		return this.stg!=null && this.stg.isDefined(ST_ENTRY_CHUNK);
+	}
+
+	/**
+	 * Renders the output in partitions.
+	 * The sorted entries of the main data set are split into contiguous slices of {@link #CHUNK_SIZE} entries.
+	 * Slices are rendered with the entry chunk template on the given pool (or one after another in the calling thread), and written in order as they are finished.
+	 * The output is header, all slices with the entry separator between them, and footer.
+	 * It is the same for any number of threads, and as rendering the entry chunk template once with all entries if that template does not depend on the number of entries.
+	 * Only a limited number of rendered slices is kept in memory.
+	 * @param bl the backend loader
+	 * @param pool pool to render slices on, null to render them in the calling thread
+	 * @throws IOException if writing failed
+	 */
+	void renderPartitioned(BackendLoader bl, ForkJoinPool pool) throws IOException{
+		List<? extends DataEntry> entries = bl.getMainDataSet().getEntries();
+		List<? extends DataEntry> entries2 = (bl.getSecondayDataSet()!=null)?bl.getSecondayDataSet().getEntries():null;
+		String separator = (this.stg.isDefined(ST_ENTRY_SEPARATOR))?this.renderToString(ST_ENTRY_SEPARATOR, null, null):"";
+
+		int window = (pool==null)?1:Math.max(2, pool.getParallelism() * 2);
+		Deque<ForkJoinTask<String>> rendering = new ArrayDeque<>();
+		try(Writer writer = this.openWriter()){
+			if(this.stg.isDefined(ST_HEADER)){
+				writer.write(this.renderToString(ST_HEADER, entries, entries2));
+			}
+
+			int next = 0;
+			boolean first = true;
+			while(next<entries.size() || !rendering.isEmpty()){
+				while(next<entries.size() && rendering.size()<window){
+					List<? extends DataEntry> slice = entries.subList(next, Math.min(next + CHUNK_SIZE, entries.size()));
+					ForkJoinTask<String> task = ForkJoinTask.adapt(() -> this.renderToString(ST_ENTRY_CHUNK, slice, entries2));
+					if(pool==null){
+						task.invoke();
+					}
+					else if(ForkJoinTask.getPool()==pool){
+						//a writer running on the pool, render on the same threads
+						task.fork();
+					}
+					else{
+						pool.execute(task);
+					}
+					rendering.add(task);
+					next += slice.size();
+				}
+				String chunk = rendering.poll().join();
+				if(!first){
+					writer.write(separator);
+				}
+				writer.write(chunk);
+				first = false;
+			}
+
+			if(this.stg.isDefined(ST_FOOTER)){
+				writer.write(this.renderToString(ST_FOOTER, entries, entries2));
+			}
+			this.finish(writer);
+		}
+		finally{
+			for(ForkJoinTask<String> task : rendering){
+				task.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Renders a template of the group to a string.
+	 * Entries are only added if the template declares the argument "entry" or "entry2".
+	 * @param name the template name
+	 * @param entries entries for the argument "entry", null for none
+	 * @param entries2 entries for the argument "entry2", null for none
+	 * @return rendered template
+	 */
+	String renderToString(String name, List<? extends DataEntry> entries, List<? extends DataEntry> entries2){
+		ST st = this.stg.getInstanceOf(name);
+		Map<String, ?> args = st.impl.formalArguments;
+		if(entries!=null && args!=null && args.containsKey("entry")){
+			st.add("entry", entries);
+		}
+		if(entries2!=null && args!=null && args.containsKey("entry2")){
+			st.add("entry2", entries2);
+		}
+		StringWriter ret = new StringWriter();
+		try{
+			st.write(new AutoIndentWriter(ret));
+		}
+		catch(IOException ioe){
+			throw new IllegalStateException("rendering template <" + name + "> to a string failed", ioe);
+		}
+		return ret.toString();
+	}
+
+	/**
+	 * Opens a writer for the output file, or for standard out if no file is set.
+	 * The file is written as UTF-8 through a buffered writer on a {@link ReplaceIfChangedOutputStream}, so the output file is only replaced in {@link #finish(Writer)}, after all output is written.
+	 * If unchanged output is skipped, the file is replaced only if the content changed, otherwise it is always replaced.
+	 * Standard out uses the default encoding and is not closed with the writer.
+	 * @return new buffered writer
+	 * @throws IOException if the file cannot be opened
+	 */
+	Writer openWriter() throws IOException{
+		if(this.fileTarget!=null && this.fileTarget.asFile()!=null){
+			this.lastOutput = new ReplaceIfChangedOutputStream(this.fileTarget.asFile().toPath(), this.skipUnchanged);
+			return new BufferedWriter(new OutputStreamWriter(this.lastOutput, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+		}
+		return new BufferedWriter(new OutputStreamWriter(new CloseShieldOutputStream(System.out)), WRITE_BUFFER_SIZE);
+	}
+
+	/**
+	 * Finishes output written to a writer from {@link #openWriter()}, standard out gets a final line separator (as {@link System#out} println).
+	 * Output to a file is committed, that is the output file is replaced (if unchanged output is skipped, only if the content changed).
+	 * Output that is not finished (for instance because rendering failed) does not replace the output file when the writer is closed.
+	 * @param writer the writer
+	 * @throws IOException if writing failed
+	 */
+	void finish(Writer writer) throws IOException{
+		if(this.fileTarget==null || this.fileTarget.asFile()==null){
+			writer.write(System.lineSeparator());
+		}
+		if(this.lastOutput!=null){
+			writer.flush();
+			this.lastOutput.commit();
+		}
+	}
+
 	/**
 	 * Fills the template with all found data sets
 	 * @param bl backend loader with data sets
@@ -171,7 +462,7 @@ public class BackendWriter {
 	public <E extends DataEntry> ST writeST(DataSet<E> ds) {
 		Validate.notNull(ds);
 
-		if(this.cs.getTarget()!=null){
+		if(this.target!=null){
 			ST st = stg.getInstanceOf("build");
 			for(E entry : ds.getEntries()){
 				st.add("entry", entry);
@@ -199,19 +490,45 @@ public class BackendWriter {
 		return st;
 	}
 
+	/**
+	 * Sets the flag for skipping unchanged output.
+	 * If set, the output is hashed while it is written, and the output file is only replaced if its content differs, so that its modification time changes only with its content.
+	 * Has no effect when writing to standard out.
+	 * @param skipUnchanged true to skip unchanged output, false to always write the output file
+	 */
+	public void setSkipUnchanged(boolean skipUnchanged){
+		this.skipUnchanged = skipUnchanged;
+	}
+
+	/**
+	 * Tests if the last write left the output file unchanged.
+	 * @return true if unchanged output is skipped and the last write did not change the output file, false otherwise
+	 */
+	public boolean isUnchanged(){
+		return this.lastOutput!=null && Boolean.FALSE.equals(this.lastOutput.isChanged());
+	}
+
+	/**
+	 * Returns the target of the writer.
+	 * @return target, null if none
+	 */
+	public DataTarget getTarget(){
+		return this.target;
+	}
+
 	/**
 	 * Returns the output mode.
 	 * @return description of what a write will do
 	 */
 	public String getOutputMode(){
-		if(this.cs.getTarget()==null){
+		if(this.target==null){
 			return "no target, writing Map<>";
 		}
-		else if(this.cs.getTarget()!=null && this.fileTarget==null){
-			return "for target <" + this.cs.getTarget().getDefinition().getTargetName() + "> writing to STDOUT";
+		else if(this.target!=null && this.fileTarget==null){
+			return "for target <" + this.target.getDefinition().getTargetName() + "> writing to STDOUT";
 		}
-		else if(this.cs.getTarget()!=null && this.fileTarget!=null){
-			return "for target <" + this.cs.getTarget().getDefinition().getTargetName() + "> writing to <" + ((this.fileTarget==null)?"standard out":this.fileTarget.getAbsoluteName()) +">";
+		else if(this.target!=null && this.fileTarget!=null){
+			return "for target <" + this.target.getDefinition().getTargetName() + "> writing to <" + ((this.fileTarget==null)?"standard out":this.fileTarget.getAbsoluteName()) +">";
 		}
 		return null;
 	}
@@ -0,0 +1,102 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.backend;
+
+import java.util.Map;
+
+import org.stringtemplate.v4.Interpreter;
+import org.stringtemplate.v4.ModelAdaptor;
+import org.stringtemplate.v4.ST;
+import org.stringtemplate.v4.STGroup;
+import org.stringtemplate.v4.misc.ObjectModelAdaptor;
+import org.stringtemplate.v4.misc.STNoSuchPropertyException;
+
+import de.vandermeer.skb.datatool.commons.DataEntry;
+import de.vandermeer.skb.datatool.commons.DataUtilities;
+import de.vandermeer.skb.datatool.commons.EntryKey;
+import de.vandermeer.skb.datatool.commons.EntryObject;
+
+/**
+ * Model adaptor for data entries and entry objects.
+ * Properties defined by the schema of an entry are read directly from the entry map, without reflection.
+ * The key of a data entry is read using {@link DataEntry#getKey()}, all other properties are resolved by the standard object adaptor (getters or fields).
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class EntryModelAdaptor implements ModelAdaptor {
+
+	/** Property name for the key of a data entry. */
+	public final static String PROPERTY_KEY = "key";
+
+	/** Adaptor for properties not defined by a schema, synchronized by ST so it must not be shared between groups. */
+	private final ModelAdaptor fallback = new ObjectModelAdaptor();
+
+	/**
+	 * Registers a new adaptor for data entries and entry objects with a group.
+	 * Every group gets its own adaptor, so that groups rendering in parallel do not lock on the same fallback adaptor.
+	 * @param stg the group to register the adaptor with
+	 */
+	public static void register(STGroup stg){
+		EntryModelAdaptor adaptor = new EntryModelAdaptor();
+		stg.registerModelAdaptor(DataEntry.class, adaptor);
+		stg.registerModelAdaptor(EntryObject.class, adaptor);
+	}
+
+	@Override
+	public Object getProperty(Interpreter interp, ST self, Object o, Object property, String propertyName) throws STNoSuchPropertyException {
+		if(o instanceof DataEntry){
+			DataEntry entry = (DataEntry)o;
+			if(PROPERTY_KEY.equals(propertyName)){
+				return entry.getKey();
+			}
+			EntryKey key = entry.getSchema().getProperties().get(propertyName);
+			if(key!=null){
+				return this.getValue(entry, entry.getEntryMap(), key, propertyName);
+			}
+		}
+		else if(o instanceof EntryObject){
+			EntryObject eo = (EntryObject)o;
+			EntryKey key = eo.getSchema().getProperties().get(propertyName);
+			if(key!=null){
+				return this.getValue(eo, eo.getEntryMap(), key, propertyName);
+			}
+		}
+		return this.fallback.getProperty(interp, self, o, property, propertyName);
+	}
+
+	/**
+	 * Returns the value of a property from an entry map.
+	 * @param o the entry or entry object, for error reporting
+	 * @param map the entry map, can be null if the entry is not loaded
+	 * @param key the key of the property
+	 * @param propertyName the name of the property, for error reporting
+	 * @return property value, with a link token replaced by the linked entry, null if not set
+	 * @throws STNoSuchPropertyException if a link token cannot be resolved, reported by ST as a render error
+	 */
+	private Object getValue(Object o, Map<EntryKey, Object> map, EntryKey key, String propertyName){
+		if(map==null){
+			return null;
+		}
+		try{
+			return DataUtilities.getLinked(map, key);
+		}
+		catch(IllegalArgumentException iae){
+			throw new STNoSuchPropertyException(iae, o, propertyName);
+		}
+	}
+}
@@ -0,0 +1,212 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.backend;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Output stream that replaces a file only if the written content differs from the content of the file.
+ * Content is written to a temporary file in the directory of the target file (created like a new file, not with restricted temporary file permissions) and hashed while writing.
+ * On {@link #commit()}, the hash is compared with the hash of the existing file (only if both have the same size).
+ * If the content differs the temporary file replaces the target file, otherwise it is deleted and the target file (and its modification time) is not touched.
+ * A stream can also be created to always replace the target file on commit, which makes writing a file atomic without comparing content.
+ * Closing the stream without a commit (for instance because writing the content failed) deletes the temporary file and leaves the target file as it was.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class ReplaceIfChangedOutputStream extends OutputStream {
+
+	/** Algorithm used to hash file content. */
+	public final static String HASH_ALGORITHM = "SHA-256";
+
+	/** Size of the buffer for reading the existing file. */
+	final static int READ_BUFFER_SIZE = 64 * 1024;
+
+	/** The target file. */
+	private final Path target;
+
+	/** The temporary file written to. */
+	private final Path temp;
+
+	/** Stream to the temporary file. */
+	private final OutputStream out;
+
+	/** Hash of the written content, null if the target file is always replaced. */
+	private final MessageDigest digest;
+
+	/** Number of bytes written. */
+	private long size;
+
+	/** Flag for a closed (or committed) stream. */
+	private boolean closed;
+
+	/** Result of commit, true if the target file was replaced, false if not changed, null if not committed. */
+	private Boolean changed;
+
+	/**
+	 * Returns a new stream for a target file, replacing the file only if the content changed.
+	 * @param target the target file, the directory of the file must exist
+	 * @throws NullPointerException if target is null
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	public ReplaceIfChangedOutputStream(Path target) throws IOException {
+		this(target, true);
+	}
+
+	/**
+	 * Returns a new stream for a target file.
+	 * @param target the target file, the directory of the file must exist
+	 * @param onlyIfChanged true to replace the target file only if the content changed, false to always replace it on commit
+	 * @throws NullPointerException if target is null
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	public ReplaceIfChangedOutputStream(Path target, boolean onlyIfChanged) throws IOException {
+		Validate.notNull(target);
+		this.target = target.toAbsolutePath();
+		this.digest = (onlyIfChanged)?newDigest():null;
+		this.temp = this.target.resolveSibling("." + this.target.getFileName() + "." + Long.toHexString(System.nanoTime()) + ".tmp");
+		this.out = Files.newOutputStream(this.temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		this.out.write(b);
+		if(this.digest!=null){
+			this.digest.update((byte)b);
+		}
+		this.size++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		this.out.write(b, off, len);
+		if(this.digest!=null){
+			this.digest.update(b, off, len);
+		}
+		this.size += len;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		this.out.flush();
+	}
+
+	/**
+	 * Closes the stream and replaces the target file if the written content differs from it (or always, if the stream was created for that).
+	 * The temporary file is deleted in any case.
+	 * @throws IllegalStateException if the stream is already closed or committed
+	 * @throws IOException if the temporary file cannot be written, or the target file cannot be read or replaced
+	 */
+	public void commit() throws IOException {
+		Validate.validState(!this.closed, "cannot commit a closed stream for <%s>", this.target);
+		this.closed = true;
+
+		try{
+			this.out.close();
+			if(this.isSame()){
+				this.changed = false;
+			}
+			else{
+				try{
+					Files.move(this.temp, this.target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+				catch(AtomicMoveNotSupportedException ex){
+					Files.move(this.temp, this.target, StandardCopyOption.REPLACE_EXISTING);
+				}
+				this.changed = true;
+			}
+		}
+		finally{
+			Files.deleteIfExists(this.temp);
+		}
+	}
+
+	/**
+	 * Closes the stream, if it is not committed the temporary file is deleted and the target file is not touched.
+	 * @throws IOException if the temporary file cannot be closed or deleted
+	 */
+	@Override
+	public void close() throws IOException {
+		if(this.closed){
+			return;
+		}
+		this.closed = true;
+
+		try{
+			this.out.close();
+		}
+		finally{
+			Files.deleteIfExists(this.temp);
+		}
+	}
+
+	/**
+	 * Tests if the written content is the same as the content of the target file.
+	 * @return true if the target file exists with the same size and hash, false otherwise (always false if the target file is always replaced)
+	 * @throws IOException if the target file cannot be read
+	 */
+	boolean isSame() throws IOException {
+		if(this.digest==null || !Files.isRegularFile(this.target) || Files.size(this.target)!=this.size){
+			return false;
+		}
+
+		MessageDigest existing = newDigest();
+		byte[] buffer = new byte[READ_BUFFER_SIZE];
+		try(InputStream in = Files.newInputStream(this.target)){
+			int read;
+			while((read = in.read(buffer))!=-1){
+				existing.update(buffer, 0, read);
+			}
+		}
+		return Arrays.equals(existing.digest(), this.digest.digest());
+	}
+
+	/**
+	 * Returns the result of committing the stream.
+	 * @return true if the target file was replaced, false if it was not changed, null if the stream is not committed or the commit failed
+	 */
+	public Boolean isChanged(){
+		return this.changed;
+	}
+
+	/**
+	 * Returns a new message digest for hashing file content.
+	 * @return new message digest
+	 * @throws IllegalStateException if the hash algorithm is not supported
+	 */
+	static MessageDigest newDigest(){
+		try{
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		}
+		catch(NoSuchAlgorithmException ex){
+			throw new IllegalStateException("hash algorithm <" + HASH_ALGORITHM + "> not supported", ex);
+		}
+	}
+}
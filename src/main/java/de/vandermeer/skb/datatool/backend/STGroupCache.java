@@ -0,0 +1,185 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.backend;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.stringtemplate.v4.STGroup;
+
+import de.vandermeer.skb.base.info.STGroupValidator;
+import de.vandermeer.skb.base.info.StgFileLoader;
+
+/**
+ * Process-wide cache of loaded and validated STGroups, so that each template group is loaded and validated only once.
+ * Groups are cached by STG file name and the checksum of the file content, a changed file is loaded again.
+ * Every lookup validates the group against the chunks the caller expects, each set of expected chunks is validated once per loaded group.
+ * Reads are concurrent, a group is loaded by one thread while other threads asking for the same file wait for it.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public abstract class STGroupCache {
+
+	/** Cached groups mapped by STG file name. */
+	private final static Map<String, CachedGroup> GROUPS = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the validated group for an STG file, loading and validating it if it is not cached or the file has changed.
+	 * The group is validated against the expected chunks of every caller, also if it was loaded (or reloaded) for another caller.
+	 * @param stgFileName the STG file name (file system or class path)
+	 * @param expectedChunks chunks the group must provide
+	 * @return validated group
+	 * @throws IllegalArgumentException if any argument is not valid
+	 * @throws IllegalStateException if the group cannot be loaded or fails validation
+	 */
+	public static STGroup get(String stgFileName, Map<String, Set<String>> expectedChunks){
+		Validate.notBlank(stgFileName);
+		Validate.notNull(expectedChunks);
+
+		String checksum = checksum(stgFileName);
+		CachedGroup ret = GROUPS.get(stgFileName);
+		if(ret==null || !ret.checksum.equals(checksum)){
+			ret = GROUPS.compute(stgFileName, (name, old) -> (old!=null && old.checksum.equals(checksum))?old:new CachedGroup(checksum, load(name)));
+		}
+		ret.validate(stgFileName, expectedChunks);
+		return ret.stg;
+	}
+
+	/**
+	 * Loads a group, and registers the entry model adaptor with it.
+	 * @param stgFileName the STG file name
+	 * @return loaded group, not yet validated
+	 * @throws IllegalStateException if the group cannot be loaded
+	 */
+	static STGroup load(String stgFileName){
+		StgFileLoader stgLoader = new StgFileLoader(stgFileName);
+		Validate.validState(stgLoader.getLoadErrors().size()==0, "problem creating STG loader for file <%s>\n%s", stgFileName, stgLoader.getLoadErrors().render());
+
+		STGroup stg = stgLoader.load();
+		Validate.validState(stgLoader.getLoadErrors().size()==0, "errors loading STG file <%s>\n%s", stgFileName, stgLoader.getLoadErrors().render());
+		Validate.validState(stg!=null, "unknown error loading STG file <%s>", stgFileName);
+
+		EntryModelAdaptor.register(stg);
+		return stg;
+	}
+
+	/**
+	 * Calculates the checksum of an STG file, read from the file system or the class path.
+	 * @param stgFileName the STG file name
+	 * @return checksum as hex string, empty if the file cannot be read (then the group is cached by name only)
+	 */
+	static String checksum(String stgFileName){
+		try{
+			byte[] content = null;
+			File file = new File(stgFileName);
+			if(file.isFile() && file.canRead()){
+				content = Files.readAllBytes(file.toPath());
+			}
+			else{
+				try(InputStream in = STGroupCache.class.getClassLoader().getResourceAsStream(stgFileName)){
+					if(in!=null){
+						content = IOUtils.toByteArray(in);
+					}
+				}
+			}
+			if(content!=null){
+				return new BigInteger(1, MessageDigest.getInstance("SHA-256").digest(content)).toString(16);
+			}
+		}
+		catch(IOException | NoSuchAlgorithmException ex){
+			//cannot calculate a checksum, cache by name only
+		}
+		return "";
+	}
+
+	/**
+	 * Removes the group of an STG file from the cache, it is loaded again when next requested.
+	 * @param stgFileName the STG file name
+	 * @return true if a group was removed, false otherwise
+	 */
+	public static boolean invalidate(String stgFileName){
+		return (stgFileName!=null && GROUPS.remove(stgFileName)!=null);
+	}
+
+	/**
+	 * Removes all groups from the cache.
+	 */
+	public static void invalidateAll(){
+		GROUPS.clear();
+	}
+
+	/**
+	 * Returns the number of cached groups.
+	 * @return number of cached groups
+	 */
+	public static int size(){
+		return GROUPS.size();
+	}
+
+	/**
+	 * A cached group with the checksum of the file it was loaded from and the expected chunks it has been validated against.
+	 */
+	static class CachedGroup {
+
+		/** Checksum of the STG file. */
+		final String checksum;
+
+		/** The loaded group. */
+		final STGroup stg;
+
+		/** Expected chunks the group has been validated against without errors. */
+		final Set<Map<String, Set<String>>> validated;
+
+		/**
+		 * Returns a new cached group.
+		 * @param checksum checksum of the STG file
+		 * @param stg the loaded group
+		 */
+		CachedGroup(String checksum, STGroup stg){
+			this.checksum = checksum;
+			this.stg = stg;
+			this.validated = ConcurrentHashMap.newKeySet();
+		}
+
+		/**
+		 * Validates the group against expected chunks, unless it has been validated against the same chunks before.
+		 * @param stgFileName the STG file name, for error messages
+		 * @param expectedChunks chunks the group must provide
+		 * @throws IllegalStateException if the group fails validation
+		 */
+		void validate(String stgFileName, Map<String, Set<String>> expectedChunks){
+			if(this.validated.contains(expectedChunks)){
+				return;
+			}
+			STGroupValidator stgVal = new STGroupValidator(this.stg, expectedChunks);
+			Validate.validState(stgVal.getValidationErrors().size()==0, "STG validation errors for file <%s>\n%s", stgFileName, stgVal.getValidationErrors().render());
+			this.validated.add(new HashMap<>(expectedChunks));
+		}
+	}
+}
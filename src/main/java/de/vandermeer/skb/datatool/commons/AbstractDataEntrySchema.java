@@ -20,6 +20,8 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.commons.lang3.Validate;
+
 /**
  * Abstract implementation of a data entry schema.
  *
@@ -35,6 +37,15 @@ public class AbstractDataEntrySchema implements DataEntrySchema {
 	/** Entry key set. */
 	private final Set<String> keySet;
 
+	/** Validator compiled from the key map. */
+	private final SchemaValidator validator;
+
+	/** Slots for compact entry maps, assigned from the key map. */
+	private final EntrySlots slots;
+
+	/** Properties, names mapped to the keys holding their values. */
+	private final Map<String, EntryKey> properties;
+
 	/**
 	 * Returns a new data entry schema.
 	 * @param keyMap map of keys for the schema
@@ -46,6 +57,41 @@ public class AbstractDataEntrySchema implements DataEntrySchema {
 		for(EntryKey key : keyMap.keySet()){
 			this.keySet.add(key.getKey());
 		}
+
+		this.validator = new SchemaValidator(this.keyMap);
+		this.slots = new EntrySlots(this.keyMap.keySet());
+		this.properties = new HashMap<>();
+	}
+
+	/**
+	 * Adds a property to the schema.
+	 * A property must only be added for a key whose value is returned by the entry without further processing (for instance a getter returning the value of the key from the entry map).
+	 * @param name property name, as used in templates
+	 * @param key key holding the value of the property
+	 * @return self to allow for chaining
+	 * @throws NullPointerException if any argument is null
+	 * @throws IllegalArgumentException if name is blank
+	 */
+	public AbstractDataEntrySchema addProperty(String name, EntryKey key){
+		Validate.notBlank(name);
+		Validate.notNull(key);
+		this.properties.put(name, key);
+		return this;
+	}
+
+	@Override
+	public Map<String, EntryKey> getProperties(){
+		return this.properties;
+	}
+
+	@Override
+	public boolean isValid(Object data){
+		return this.validator.isValid(data);
+	}
+
+	@Override
+	public EntrySlots getSlots(){
+		return this.slots;
 	}
 
 	@Override
@@ -30,6 +30,9 @@ public abstract class AbstractDataSetLoader<E extends DataEntry> implements Data
 	/** Map with linkeable data entries from other sets. */
 	private LoadedTypeMap loadedTypes;
 
+	/** Data set of the last load, for incremental reload. */
+	private DataSet<E> previousSet;
+
 	@Override
 	public void setCs(CoreSettings cs) {
 		this.cs = cs;
@@ -50,4 +53,14 @@ public abstract class AbstractDataSetLoader<E extends DataEntry> implements Data
 		return this.loadedTypes;
 	}
 
+	@Override
+	public DataSet<E> getPreviousSet(){
+		return this.previousSet;
+	}
+
+	@Override
+	public void setPreviousSet(DataSet<E> ds){
+		this.previousSet = ds;
+	}
+
 }
@@ -15,14 +15,30 @@
 
 package de.vandermeer.skb.datatool.commons;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Abstract implementation of an entry key.
+ * Keys are compared by identity, so every created key is registered and a de-serialized key is resolved to the registered instance.
  *
  * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
  * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
  * @since      v0.0.1
  */
-public class AbstractEntryKey implements EntryKey {
+public class AbstractEntryKey implements EntryKey, Serializable {
+
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
+	/** Registry of all created keys by their identifier. */
+	private static final Map<String, Object> REGISTRY = new ConcurrentHashMap<>();
+
+	/** Marker for an identifier used by more than one key. */
+	private static final Object AMBIGUOUS = new Object();
 
 	/** Key. */
 	private String key;
@@ -53,6 +69,31 @@ public class AbstractEntryKey implements EntryKey {
 		this.type = type;
 		this.useTranslator = useTranslator;
 		this.skbUri = skbUri;
+
+		if(REGISTRY.putIfAbsent(this.getIdentifier(), this)!=null){
+			REGISTRY.put(this.getIdentifier(), AMBIGUOUS);
+		}
+	}
+
+	/**
+	 * Returns an identifier for the key, used to resolve de-serialized keys.
+	 * @return key identifier (key, description, and type)
+	 */
+	String getIdentifier(){
+		return this.key + "|" + this.description + "|" + ((this.type==null)?null:this.type.getName());
+	}
+
+	/**
+	 * Resolves a de-serialized key to the registered key instance.
+	 * @return registered key
+	 * @throws ObjectStreamException if no key or more than one key is registered for the identifier
+	 */
+	protected Object readResolve() throws ObjectStreamException {
+		Object ret = REGISTRY.get(this.getIdentifier());
+		if(!(ret instanceof EntryKey)){
+			throw new InvalidObjectException("cannot resolve entry key <" + this.getIdentifier() + ">");
+		}
+		return ret;
 	}
 
 	@Override
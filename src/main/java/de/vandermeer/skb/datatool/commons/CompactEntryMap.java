@@ -0,0 +1,228 @@
+/* Copyright 2015 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.commons;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compact storage for the values of an entry, indexed by the slots of the entry's schema.
+ * Values are kept in an object array, integer values in a primitive array.
+ * The class implements a map so that it can be used as entry map, a null value means that the key is not set.
+ * It is not thread-safe for modifications, as the hash map it replaces.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class CompactEntryMap extends AbstractMap<EntryKey, Object> implements Serializable {
+
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The slots of the schema. */
+	private final EntrySlots slots;
+
+	/** Object values, by slot. */
+	private Object[] values;
+
+	/** Integer values, by slot. */
+	private final int[] ints;
+
+	/** Bit mask of set integer values. */
+	private long intsSet;
+
+	/**
+	 * Returns a new, empty entry map.
+	 * @param slots the slots of the entry's schema
+	 */
+	public CompactEntryMap(EntrySlots slots){
+		this.slots = slots;
+		this.values = new Object[slots.size()];
+		this.ints = new int[slots.intSize()];
+	}
+
+	@Override
+	public Object get(Object key){
+		int slot = this.slots.intSlot(key);
+		if(slot>=0){
+			return ((this.intsSet & (1L << slot))!=0)?Integer.valueOf(this.ints[slot]):null;
+		}
+		slot = this.slots.slot(key);
+		return (slot>=0 && slot<this.values.length)?this.values[slot]:null;
+	}
+
+	/**
+	 * Returns an integer value without boxing.
+	 * @param key the key of the value
+	 * @param defaultValue value to return if the key is not set
+	 * @return value for the key, default value if not set
+	 */
+	public int getInt(EntryKey key, int defaultValue){
+		int slot = this.slots.intSlot(key);
+		if(slot>=0){
+			return ((this.intsSet & (1L << slot))!=0)?this.ints[slot]:defaultValue;
+		}
+		Object ret = this.get(key);
+		return (ret instanceof Integer)?(Integer)ret:defaultValue;
+	}
+
+	@Override
+	public boolean containsKey(Object key){
+		return this.get(key)!=null;
+	}
+
+	@Override
+	public Object put(EntryKey key, Object value){
+		Object ret = this.get(key);
+
+		int slot = this.slots.intSlot(key);
+		if(slot>=0){
+			if(value==null){
+				this.intsSet &= ~(1L << slot);
+			}
+			else if(value instanceof Integer){
+				this.ints[slot] = (Integer)value;
+				this.intsSet |= 1L << slot;
+			}
+			else{
+				throw new IllegalArgumentException("entry key <" + key.getKey() + "> requires an integer value, found <" + value.getClass().getSimpleName() + ">");
+			}
+			return ret;
+		}
+
+		slot = this.slots.slot(key);
+		if(slot<0){
+			if(value==null){
+				return ret;
+			}
+			slot = this.slots.addSlot(key);
+		}
+		if(slot>=this.values.length){
+			this.values = Arrays.copyOf(this.values, slot + 1);
+		}
+		this.values[slot] = value;
+		return ret;
+	}
+
+	@Override
+	public Object remove(Object key){
+		if(key instanceof EntryKey){
+			return this.put((EntryKey)key, null);
+		}
+		return null;
+	}
+
+	@Override
+	public int size(){
+		int ret = Long.bitCount(this.intsSet);
+		for(Object value : this.values){
+			if(value!=null){
+				ret++;
+			}
+		}
+		return ret;
+	}
+
+	@Override
+	public Set<Entry<EntryKey, Object>> entrySet(){
+		return new AbstractSet<Entry<EntryKey, Object>>(){
+			@Override
+			public Iterator<Entry<EntryKey, Object>> iterator(){
+				return new SlotIterator();
+			}
+
+			@Override
+			public int size(){
+				return CompactEntryMap.this.size();
+			}
+		};
+	}
+
+	/**
+	 * Iterator over all set values, first integer slots then object slots.
+	 */
+	private class SlotIterator implements Iterator<Entry<EntryKey, Object>> {
+
+		/** Next position, integer slots first, then object slots. */
+		int next = -1;
+
+		/** Key of the last returned entry, null if none or removed. */
+		EntryKey last;
+
+		/**
+		 * Creates a new iterator.
+		 */
+		SlotIterator(){
+			this.advance();
+		}
+
+		/**
+		 * Moves to the next set value.
+		 */
+		void advance(){
+			int ints = CompactEntryMap.this.ints.length;
+			for(this.next++; this.next<ints + CompactEntryMap.this.values.length; this.next++){
+				if(this.next<ints){
+					if((CompactEntryMap.this.intsSet & (1L << this.next))!=0){
+						return;
+					}
+				}
+				else if(CompactEntryMap.this.values[this.next - ints]!=null){
+					return;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext(){
+			return this.next<CompactEntryMap.this.ints.length + CompactEntryMap.this.values.length;
+		}
+
+		@Override
+		public Entry<EntryKey, Object> next(){
+			if(!this.hasNext()){
+				throw new NoSuchElementException();
+			}
+			int ints = CompactEntryMap.this.ints.length;
+			EntryKey key = (this.next<ints)?CompactEntryMap.this.slots.getIntKey(this.next):CompactEntryMap.this.slots.getKey(this.next - ints);
+			this.last = key;
+			this.advance();
+			return new SimpleEntry<EntryKey, Object>(key, CompactEntryMap.this.get(key)){
+				private static final long serialVersionUID = 1L;
+				@Override
+				public Object setValue(Object value){
+					super.setValue(value);
+					return CompactEntryMap.this.put(key, value);
+				}
+			};
+		}
+
+		@Override
+		public void remove(){
+			if(this.last==null){
+				throw new IllegalStateException();
+			}
+			CompactEntryMap.this.remove(this.last);
+			this.last = null;
+		}
+	}
+}
@@ -15,6 +15,8 @@
 
 package de.vandermeer.skb.datatool.commons;
 
+import java.util.concurrent.ForkJoinPool;
+
 import de.vandermeer.skb.base.encodings.Translator;
 import de.vandermeer.skb.base.encodings.TranslatorFactory;
 import de.vandermeer.skb.base.encodings.TranslatorFactory.Target;
@@ -29,6 +31,9 @@ import de.vandermeer.skb.datatool.commons.target.DataTarget;
  */
 public class CoreSettings {
 
+	/** Maximum number of translations kept in the translation cache. */
+	public final static int TRANSLATION_CACHE_SIZE = 10000;
+
 	/** Separator character for auto-generated keys. */
 	private char keySeparator = ':';
 
@@ -44,6 +49,33 @@ public class CoreSettings {
 	/** Loaders target. */
 	private DataTarget target;
 
+	/** Number of threads for parsing entry files, 1 (default) means sequential load. */
+	private int loadThreads = 1;
+
+	/** Flag for incremental reload, loaders then patch their previous data set with changed files only. */
+	private boolean incremental;
+
+	/** Mode for resolving SKB links. */
+	private LinkResolution linkResolution = LinkResolution.EAGER;
+
+	/** Index of entry files in the input directory, null if loaders walk the directory themselves. */
+	private DirectoryIndex directoryIndex;
+
+	/** Pool shared by all load work of the current load (types, files, links), null if none. */
+	private ForkJoinPool loadPool;
+
+	/** Reader for entry files, shared by all loaders using these settings. */
+	private final EntryReader entryReader;
+
+	/** Pool for strings loaded from entry files, shared by all loaders using these settings. */
+	private final StringPool stringPool;
+
+	/** Translator of the target, null if the target has none. */
+	private final Translator translator;
+
+	/** Cache of translated strings, evicting the least recently used translation when it reaches its maximum size. */
+	private final LruCache<String, String> translations;
+
 	/**
 	 * Returns a new core settings object
 	 * @param keySeparator the separator of key elements
@@ -58,6 +90,12 @@ public class CoreSettings {
 		this.appName = appName;
 		this.inputDir = inputDir;
 		this.target = target;
+		this.entryReader = new EntryReader();
+		this.stringPool = new StringPool();
+
+		Target translationTarget = (target!=null)?target.getDefinition().getTranslationTarget():null;
+		this.translator = (translationTarget!=null)?TranslatorFactory.getTranslator(translationTarget):null;
+		this.translations = new LruCache<>(TRANSLATION_CACHE_SIZE);
 	}
 
 	/**
@@ -101,16 +139,131 @@ public class CoreSettings {
 	}
 
 	/**
-	 * Returns the translator.
+	 * Sets the number of threads used to parse entry files.
+	 * @param loadThreads number of threads, values smaller than 1 are ignored (1 means sequential load)
+	 */
+	public void setLoadThreads(int loadThreads){
+		if(loadThreads>0){
+			this.loadThreads = loadThreads;
+		}
+	}
+
+	/**
+	 * Returns the number of threads used to parse entry files.
+	 * @return number of threads, 1 for sequential load
+	 */
+	public int getLoadThreads(){
+		return this.loadThreads;
+	}
+
+	/**
+	 * Sets the flag for incremental reload.
+	 * @param incremental true to re-parse only changed, added, or removed files when a loader loads again, false to always load all files
+	 */
+	public void setIncremental(boolean incremental){
+		this.incremental = incremental;
+	}
+
+	/**
+	 * Returns the flag for incremental reload.
+	 * @return true if loaders patch their previous data set, false if they always load all files
+	 */
+	public boolean getIncremental(){
+		return this.incremental;
+	}
+
+	/**
+	 * Sets the mode for resolving SKB links.
+	 * @param linkResolution the mode, null is ignored (default is eager resolution)
+	 */
+	public void setLinkResolution(LinkResolution linkResolution){
+		if(linkResolution!=null){
+			this.linkResolution = linkResolution;
+		}
+	}
+
+	/**
+	 * Returns the mode for resolving SKB links.
+	 * @return link resolution mode
+	 */
+	public LinkResolution getLinkResolution(){
+		return this.linkResolution;
+	}
+
+	/**
+	 * Sets the index of entry files in the input directory, shared by all loaders.
+	 * @param directoryIndex the index, null to have loaders walk the input directory themselves
+	 */
+	public void setDirectoryIndex(DirectoryIndex directoryIndex){
+		this.directoryIndex = directoryIndex;
+	}
+
+	/**
+	 * Returns the index of entry files in the input directory.
+	 * @return index, null if none set
+	 */
+	public DirectoryIndex getDirectoryIndex(){
+		return this.directoryIndex;
+	}
+
+	/**
+	 * Sets the pool shared by all load work of the current load.
+	 * Types, files, and links loaded with one pool use at most the threads of that pool, instead of each starting a pool of their own.
+	 * @param loadPool the pool, null to have every load step start its own pool
+	 */
+	public void setLoadPool(ForkJoinPool loadPool){
+		this.loadPool = loadPool;
+	}
+
+	/**
+	 * Returns the pool shared by all load work of the current load.
+	 * @return pool, null if none set
+	 */
+	public ForkJoinPool getLoadPool(){
+		return this.loadPool;
+	}
+
+	/**
+	 * Returns the reader for entry files.
+	 * @return entry reader, thread-safe and shared by all loaders using these settings
+	 */
+	public EntryReader getEntryReader(){
+		return this.entryReader;
+	}
+
+	/**
+	 * Returns the pool for strings loaded from entry files.
+	 * @return string pool, thread-safe and shared by all loaders using these settings
+	 */
+	public StringPool getStringPool(){
+		return this.stringPool;
+	}
+
+	/**
+	 * Returns the translator, created once for the target of these settings.
 	 * @return translator, null if none set in the target
 	 */
 	public Translator getTranslator(){
-		if(this.getTarget()!=null){
-			Target target = this.getTarget().getDefinition().getTranslationTarget();
-			if(target!=null){
-				return TranslatorFactory.getTranslator(target);
+		return this.translator;
+	}
+
+	/**
+	 * Translates a string with the translator of the target.
+	 * Translations are cached, so repeated strings are translated only once, the least recently used translation is evicted when the cache is full.
+	 * @param s the string to translate
+	 * @return translated string, the original string if no translator is set or the string is null
+	 */
+	public String translate(String s){
+		if(this.translator==null || s==null){
+			return s;
+		}
+		String ret = this.translations.get(s);
+		if(ret==null){
+			ret = this.translator.translate(s);
+			if(ret!=null){
+				this.translations.put(s, ret);
 			}
 		}
-		return null;
+		return ret;
 	}
 }
@@ -15,21 +15,23 @@
 
 package de.vandermeer.skb.datatool.commons;
 
+import java.io.Serializable;
 import java.net.URISyntaxException;
 import java.util.Collection;
 import java.util.Map;
 
+import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.text.StrBuilder;
 
 /**
  * Generic data entry for the data tools.
+ * Entries are serializable so that loaded data sets can be stored in a snapshot, links to other entries are serialized as object references.
  *
  * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
  * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
  * @since      v0.0.1
  */
-public interface DataEntry extends Comparable<DataEntry> {
+public interface DataEntry extends Comparable<DataEntry>, Serializable {
 
 	/**
 	 * Returns the key the entry is using.
@@ -60,6 +62,15 @@ public interface DataEntry extends Comparable<DataEntry> {
 	 */
 	String testDuplicate(Collection<DataEntry> set);
 
+	/**
+	 * Returns a signature for duplicate detection.
+	 * Two entries with equal signatures (equals and hashCode) are duplicates of each other, which allows a data set to index them for constant time tests.
+	 * @return duplicate signature, null if the entry does not provide one (then {@link #testDuplicate(Collection)} is used)
+	 */
+	default Object getDuplicateSignature(){
+		return null;
+	}
+
 	/**
 	 * Loads the entry content using a given loader.
 	 * @param keyStart string used to start a key
@@ -69,9 +80,8 @@ public interface DataEntry extends Comparable<DataEntry> {
 	 * @throws URISyntaxException if an SKB link is used to de-reference an entry and the URL is not formed well
 	 */
 	default void load(String keyStart, Map<String, Object> data, CoreSettings cs) throws URISyntaxException {
-		StrBuilder err = this.getSchema().testSchema(data);
-		if(err.size()>0){
-			throw new IllegalArgumentException(err.toString());
+		if(!this.getSchema().isValid(data)){
+			throw new IllegalArgumentException(this.getSchema().testSchema(data).toString());
 		}
 		this.loadEntry(keyStart, data, cs);
 		this.setKey(this.toKey(this.getKey()));
@@ -115,15 +125,22 @@ public interface DataEntry extends Comparable<DataEntry> {
 	 */
 	DataEntrySchema getSchema();
 
+	/**
+	 * Compares entries by their compare string, and entries with the same compare string by their key.
+	 * This is a total order for entries of a data set (keys are unique), null strings are sorted first.
+	 * @param o the entry to compare with
+	 * @return negative, zero, or positive if this entry is less than, equal to, or greater than the other entry, -1 if the other entry is null
+	 */
 	@Override
 	default int compareTo(DataEntry o) {
 		if(o==null){
 			return -1;
 		}
-		if(this.getCompareString().compareTo(o.getCompareString())==0){
-			return -1;
+		int ret = ObjectUtils.compare(this.getCompareString(), o.getCompareString());
+		if(ret!=0){
+			return ret;
 		}
-		return this.getCompareString().compareTo(o.getCompareString());
+		return ObjectUtils.compare(this.getKey(), o.getKey());
 	}
 
 	/**
@@ -15,6 +15,7 @@
 
 package de.vandermeer.skb.datatool.commons;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.Map.Entry;
@@ -44,6 +45,33 @@ public interface DataEntrySchema {
 	 */
 	Set<String> getKeySet();
 
+	/**
+	 * Returns the slots for compact entry maps of this schema.
+	 * @return slots, null if entries of this schema use a hash map
+	 */
+	default EntrySlots getSlots(){
+		return null;
+	}
+
+	/**
+	 * Returns the properties of the schema, that is property names (as used in templates) mapped to the keys holding their values.
+	 * Properties are read directly from the entry map, with link tokens replaced by the linked entry.
+	 * @return property map, empty if the schema does not define properties
+	 */
+	default Map<String, EntryKey> getProperties(){
+		return Collections.emptyMap();
+	}
+
+	/**
+	 * Tests quickly if the data fulfills the data entry schema.
+	 * Use {@link #testSchema(Object)} for explanations on failure.
+	 * @param data original data, should be a mapping of strings to objects
+	 * @return true if the data fulfills the schema, false otherwise
+	 */
+	default boolean isValid(Object data){
+		return this.testSchema(data).size()==0;
+	}
+
 	/**
 	 * Tests the map against the data entry schema (programmatic).
 	 * @param data original data, should be a mapping of strings to objects
@@ -61,7 +89,7 @@ public interface DataEntrySchema {
 			if(e.getValue()==true && !map.containsKey(e.getKey().getKey())){
 				ret.append("missing mandatory entry key <").append(e.getKey().getKey()).append(">").appendNewLine();
 			}
-			else if(e.getValue()==true && StringUtils.isEmpty(map.get(e.getKey().getKey()).toString())){
+			else if(e.getValue()==true && (map.get(e.getKey().getKey())==null || StringUtils.isEmpty(map.get(e.getKey().getKey()).toString()))){
 				ret.append("empty mandatory entry key <").append(e.getKey().getKey()).append(">").appendNewLine();
 			}
 		}
@@ -16,21 +16,34 @@
 package de.vandermeer.skb.datatool.commons;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.Serializable;
 import java.net.URISyntaxException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.codehaus.jackson.JsonParseException;
 import org.codehaus.jackson.JsonParser;
-import org.codehaus.jackson.map.ObjectMapper;
-import org.codehaus.jackson.type.TypeReference;
+import org.codehaus.jackson.JsonProcessingException;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.JsonMappingException;
 
 import de.vandermeer.skb.base.console.Skb_Console;
 import de.vandermeer.skb.base.info.FileSource;
@@ -42,19 +55,43 @@ import de.vandermeer.skb.base.info.FileSource;
  * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
  * @since      v0.0.1
  */
-public class DataSet<E extends DataEntry> {
+public class DataSet<E extends DataEntry> implements Serializable {
+
+	/** Serial version UID. */
+	private static final long serialVersionUID = 3L;
 
 	/** The map of entries. */
 	Map<String, E> entries;
 
-	/** Number of read files. */
+	/** Entries sorted by their natural order, null if not built since the last change. */
+	private transient volatile DataEntry[] sorted;
+
+	/** Index of duplicate signatures to the key of the entry that has them. */
+	Map<Object, String> duplicates;
+
+	/** Path common to all loaded files, used for key auto-generation. */
+	String commonPath;
+
+	/** Entries parsed from a file in file order (including entries rejected as duplicates), mapped by the absolute name of the file, only kept for incremental reload. */
+	Map<String, List<E>> sources;
+
+	/** Fingerprints of files loaded without problems, mapped by absolute file name, only kept for incremental reload. */
+	Map<String, FileFingerprint> fingerprints;
+
+	/** Number of files loaded without problems. */
 	int files;
 
+	/** Number of reported problems while merging files, that is files that failed to load and rejected duplicate entries. */
+	int errors;
+
+	/** Number of links that could not be resolved, mapped by the key of the entry with the link. */
+	Map<String, Integer> linkErrors;
+
 	/** Factory for data entries of this data set. */
-	DataEntryFactory<E> factory;
+	transient DataEntryFactory<E> factory;
 
 	/** Core settings. */
-	private CoreSettings cs;
+	private transient CoreSettings cs;
 
 	/** Characters excluded from translation. */
 	String[] excluded;
@@ -66,11 +103,26 @@ public class DataSet<E extends DataEntry> {
 	 */
 	public DataSet(CoreSettings cs, DataEntryFactory<E> factory){
 		this.entries = new HashMap<>();
+		this.duplicates = new HashMap<>();
+		this.sources = new HashMap<>();
+		this.fingerprints = new HashMap<>();
 		this.files = 0;
+		this.errors = 0;
+		this.linkErrors = new HashMap<>();
 		this.factory = factory;
 		this.cs = cs;
 	}
 
+	/**
+	 * Sets core settings and entry factory of a data set restored from a snapshot.
+	 * @param cs the core settings
+	 * @param factory a factory that creates data entries
+	 */
+	void restore(CoreSettings cs, DataEntryFactory<E> factory){
+		this.cs = cs;
+		this.factory = factory;
+	}
+
 	/**
 	 * Returns the path common to all files in the given file list.
 	 * The rest (after this common path) will be used for auto-key-generation
@@ -109,68 +161,468 @@ public class DataSet<E extends DataEntry> {
 		ret = StringUtils.substringBeforeLast(ret, ".");
 
 		//return the key plus a final separator
-		return ret + this.cs.getKeySeparator();
+		return this.cs.getStringPool().intern(ret + this.cs.getKeySeparator());
 	}
 
 	/**
 	 * Loads a data set from file system, does many consistency checks as well.
+	 * If the core settings request more than one load thread, files are parsed in parallel and then merged in list order.
 	 * @param fsl list of files to load data from
 	 * @param fileExt the file extension used (translated to "." + fileExt + ".json"), empty if none used
 	 * @return 0 on success, larger than zero on JSON parsing error (number of found errors)
 	 */
-	@SuppressWarnings("unchecked")
 	public int load(List<FileSource> fsl, String fileExt){
-		int ret = 0;
+		this.clear();
+		this.commonPath = this.calcCommonPath(fsl);
+		return this.mergeFiles(fsl, this.parseFiles(fsl));
+	}
+
+	/**
+	 * Reloads a data set from file system, re-parsing only files that have been changed, added, or removed since the last load.
+	 * The entries parsed from unchanged files are kept, including entries rejected as duplicates, and their strings are added to the string pool again.
+	 * All files are then merged again in list order, so the result (entries, duplicate rejections, and reported problems) is the same as for a full load.
+	 * Files that failed to load in the last load are always re-parsed.
+	 * If the common path of all files has changed (which changes auto-generated keys), all files are loaded.
+	 * File information is only kept if the core settings request incremental reload, otherwise all files are loaded as well.
+	 * @param fsl list of files to load data from
+	 * @param fileExt the file extension used (translated to "." + fileExt + ".json"), empty if none used
+	 * @return 0 on success, larger than zero on JSON parsing error (number of found errors)
+	 */
+	public int reload(List<FileSource> fsl, String fileExt){
 		String commonPath = this.calcCommonPath(fsl);
+		if(!commonPath.equals(this.commonPath)){
+			return this.load(fsl, fileExt);
+		}
 
+		Set<String> current = new HashSet<>();
+		List<FileSource> changed = new ArrayList<>();
 		for(FileSource fs : fsl){
-			String keyStart = this.calcKeyStart(fs, commonPath);
-			ObjectMapper om = new ObjectMapper();
-			om.configure(JsonParser.Feature.ALLOW_COMMENTS, true);
-			try{
-				List<Map<String, Object>> jsonList = om.readValue(fs.asFile(), new TypeReference<ArrayList<HashMap<String, Object>>>(){});
-				for(Map<String, Object> entryMap : jsonList){
-					E entry = this.factory.newInstanceLoaded(keyStart, entryMap);
-					if(entry.getKey().contains("#dummy")){
-						continue;
-					}
+			current.add(fs.getAbsoluteName());
+			FileFingerprint fp = this.fingerprints.get(fs.getAbsoluteName());
+			if(fp==null || !fp.isUnchanged(fs.asFile())){
+				changed.add(fs);
+			}
+		}
+		for(FileSource fs : changed){
+			this.remove(fs.getAbsoluteName());
+		}
+		for(String name : new ArrayList<>(this.sources.keySet())){
+			if(!current.contains(name)){
+				this.remove(name);
+			}
+		}
 
-					String dup = entry.testDuplicate((Collection<DataEntry>) this.entries.values());
-					if(this.entries.containsKey(entry.getKey())){
-						Skb_Console.conError("{}: duplicate key <{}> found in file <{}>", new Object[]{this.cs.getAppName(), entry.getKey(), fs.getAbsoluteName()});
-					}
-					else if(dup!=null){
-						Skb_Console.conError("{}: entry already in map: k1 <{}> <> k2 <{}> found in file <{}>", new Object[]{this.cs.getAppName(), dup, entry.getKey(), fs.getAbsoluteName()});
-					}
-					else{
-						if(this.excluded==null || (!ArrayUtils.contains(this.excluded, entry.getCompareString()))){
-							this.entries.put(entry.getKey(), (E) entry);
-						}
-					}
+		this.internStrings();
+		return this.mergeFiles(fsl, this.parseFiles(changed));
+	}
+
+	/**
+	 * Parses files, in parallel if the core settings request more than one load thread.
+	 * Files are parsed on the load pool of the core settings if set, otherwise on a pool of their own.
+	 * @param fsl list of files to parse
+	 * @return parse results mapped by absolute file name
+	 */
+	Map<String, ParsedFile<E>> parseFiles(List<FileSource> fsl){
+		Map<String, ParsedFile<E>> ret = new HashMap<>();
+		if(this.cs.getLoadThreads()<2 || fsl.size()<2){
+			for(FileSource fs : fsl){
+				ret.put(fs.getAbsoluteName(), this.parseFile(fs, this.commonPath));
+			}
+			return ret;
+		}
+
+		ForkJoinPool shared = this.cs.getLoadPool();
+		ForkJoinPool pool = (shared!=null)?shared:new ForkJoinPool(this.cs.getLoadThreads());
+		try{
+			List<ForkJoinTask<ParsedFile<E>>> tasks = new ArrayList<>(fsl.size());
+			for(FileSource fs : fsl){
+				ForkJoinTask<ParsedFile<E>> task = ForkJoinTask.adapt(() -> this.parseFile(fs, this.commonPath));
+				if(ForkJoinTask.getPool()==pool){
+					//already loading on the pool, e.g. a type loaded by the scheduler
+					task.fork();
+				}
+				else{
+					pool.execute(task);
+				}
+				tasks.add(task);
+			}
+			for(int i=0; i<tasks.size(); i++){
+				ret.put(fsl.get(i).getAbsoluteName(), tasks.get(i).join());
+			}
+		}
+		finally{
+			if(pool!=shared){
+				pool.shutdown();
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Merges all files into an empty data set in list order.
+	 * Files without a parse result use the entries parsed from them in an earlier load.
+	 * @param fsl list of files to merge
+	 * @param parsed parse results of files parsed for this merge, mapped by absolute file name
+	 * @return 0 on success, larger than zero on JSON parsing error (number of found errors)
+	 */
+	int mergeFiles(List<FileSource> fsl, Map<String, ParsedFile<E>> parsed){
+		this.entries.clear();
+		this.sorted = null;
+		this.duplicates.clear();
+		this.files = 0;
+		this.errors = 0;
+
+		int ret = 0;
+		for(FileSource fs : fsl){
+			ParsedFile<E> pf = parsed.get(fs.getAbsoluteName());
+			if(pf==null){
+				pf = new ParsedFile<>();
+				pf.entries.addAll(this.sources.get(fs.getAbsoluteName()));
+				pf.fingerprint = this.fingerprints.get(fs.getAbsoluteName());
+			}
+			ret += this.merge(fs, pf);
+		}
+		return ret;
+	}
+
+	/**
+	 * Removes the entries parsed from a file, the file's fingerprint, and link problems of its entries.
+	 * @param fileName absolute name of the file
+	 */
+	void remove(String fileName){
+		List<E> removed = this.sources.remove(fileName);
+		if(removed!=null){
+			for(E entry : removed){
+				if(this.entries.get(entry.getKey())==entry){
+					this.linkErrors.remove(entry.getKey());
+				}
+			}
+		}
+		this.fingerprints.remove(fileName);
+	}
+
+	/**
+	 * Adds the strings of all entries parsed from files (and of their entry objects) to the string pool of the core settings.
+	 * Used after the pool was cleared, so that strings loaded afterwards are shared with the entries kept in the data set.
+	 * Without incremental reload only the entries of the data set are kept, so only their strings are added.
+	 * Keys are not pooled.
+	 */
+	public void internStrings(){
+		StringPool pool = this.cs.getStringPool();
+		if(!this.cs.getIncremental()){
+			for(E entry : this.entries.values()){
+				this.internStrings(entry.getEntryMap(), pool);
+			}
+			return;
+		}
+		for(List<E> parsed : this.sources.values()){
+			for(E entry : parsed){
+				this.internStrings(entry.getEntryMap(), pool);
+			}
+		}
+	}
+
+	/**
+	 * Replaces all strings in an entry map by their pooled instance, recursing into entry objects.
+	 * @param map the entry map, nothing is done if null
+	 * @param pool the string pool
+	 */
+	void internStrings(Map<EntryKey, Object> map, StringPool pool){
+		if(map==null){
+			return;
+		}
+		for(Map.Entry<EntryKey, Object> me : map.entrySet()){
+			if(me.getValue() instanceof String && me.getKey()!=CommonKeys.KEY){
+				me.setValue(pool.intern((String)me.getValue()));
+			}
+			else if(me.getValue() instanceof EntryObject){
+				this.internStrings(((EntryObject)me.getValue()).getEntryMap(), pool);
+			}
+		}
+	}
+
+	/**
+	 * Removes a single entry from the data set.
+	 * @param key the key of the entry
+	 * @return the removed entry, null if no entry has the key
+	 */
+	public E removeEntry(String key){
+		E ret = this.entries.remove(key);
+		if(ret!=null){
+			this.sorted = null;
+			this.linkErrors.remove(key);
+			if(ret.getDuplicateSignature()!=null){
+				this.duplicates.remove(ret.getDuplicateSignature(), key);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Removes all entries, file information, and counters from the data set.
+	 */
+	void clear(){
+		this.entries.clear();
+		this.sorted = null;
+		this.duplicates.clear();
+		this.sources.clear();
+		this.fingerprints.clear();
+		this.files = 0;
+		this.errors = 0;
+		this.linkErrors.clear();
+	}
+
+	/**
+	 * Parses a single file into entries, without adding them to the data set.
+	 * The file is parsed as a token stream, each entry object is read into a map, handed to the entry factory, and then discarded.
+	 * For incremental reload, the content is hashed for a fingerprint while it is parsed.
+	 * If the file is not well-formed JSON, no entries of the file are returned.
+	 * @param fs the file to parse
+	 * @param commonPath the common path of all file names
+	 * @return parsed entries, plus the exception that stopped parsing if any
+	 */
+	ParsedFile<E> parseFile(FileSource fs, String commonPath){
+		ParsedFile<E> ret = new ParsedFile<>();
+		String keyStart = this.calcKeyStart(fs, commonPath);
+		EntryReader reader = this.cs.getEntryReader();
+		try{
+			File file = fs.asFile();
+			if(!this.cs.getIncremental()){
+				try(JsonParser jp = reader.createParser(file)){
+					this.parseEntries(jp, keyStart, ret);
 				}
-				this.files++;
+				return ret;
 			}
-			catch(IllegalArgumentException iaex){
-				Skb_Console.conError("{}: problem creating entry: <{}> in file <{}>", new Object[]{this.cs.getAppName(), iaex.getMessage(), fs.getAbsoluteName()});
-				ret++;
+
+			long modified = file.lastModified();
+			MessageDigest md = FileFingerprint.newDigest();
+			try(CountingInputStream in = new CountingInputStream(new DigestInputStream(new FileInputStream(file), md)); JsonParser jp = reader.createParser(new CloseShieldInputStream(in))){
+				this.parseEntries(jp, keyStart, ret);
+				//the parser stops at the end of the array, hash the rest of the file as well
+				IOUtils.skip(in, Long.MAX_VALUE);
+				ret.fingerprint = new FileFingerprint(modified, in.getByteCount(), md.digest());
 			}
-			catch(URISyntaxException ue){
-				Skb_Console.conError("{}: problem creating a URI for a link: <{}> in file <{}>", new Object[]{this.cs.getAppName(), ue.getMessage(), fs.getAbsoluteName()});
-				ret++;
+		}
+		catch(JsonProcessingException jpe){
+			ret.entries.clear();
+			ret.error = jpe;
+		}
+		catch(Exception ex){
+			ret.error = ex;
+		}
+		return ret;
+	}
+
+	/**
+	 * Parses the array of entries of a file.
+	 * @param jp parser positioned before the start of the file
+	 * @param keyStart start of auto-generated keys for the file
+	 * @param ret parse result the entries are added to
+	 * @throws Exception if the file is not an array of entries or an entry cannot be read or created
+	 */
+	void parseEntries(JsonParser jp, String keyStart, ParsedFile<E> ret) throws Exception {
+		if(jp.nextToken()!=JsonToken.START_ARRAY){
+			throw new JsonMappingException("expected an array of entries", jp.getCurrentLocation());
+		}
+		EntryReader reader = this.cs.getEntryReader();
+		for(JsonToken token=jp.nextToken(); token!=JsonToken.END_ARRAY; token=jp.nextToken()){
+			if(token==null){
+				throw new JsonParseException("unexpected end of input, array of entries not closed", jp.getCurrentLocation());
 			}
-			catch(NullPointerException npe){
-				npe.printStackTrace();
-				ret++;
+			Map<String, Object> entryMap = reader.readEntry(jp);
+			E entry = this.factory.newInstanceLoaded(keyStart, entryMap);
+			if(entry.getKey().contains("#dummy")){
+				continue;
 			}
-			catch(Exception ex){
-				Skb_Console.conError("reading acronym from JSON failed with exception <{}>, cause <{}> and message <{}> in file <{}>", new Object[]{ex.getClass().getSimpleName(), ex.getCause(), ex.getMessage(), fs.getAbsoluteName()});
-				ret++;
+			ret.entries.add(entry);
+		}
+	}
+
+	/**
+	 * Merges the entries of a parsed file into the data set, doing duplicate tests and logging all errors.
+	 * For incremental reload, all parsed entries are kept for the file, so that entries rejected as duplicates are merged again if the file is merged again.
+	 * @param fs the file the entries were parsed from
+	 * @param parsed the parse result
+	 * @return 0 on success, 1 if parsing the file failed
+	 */
+	int merge(FileSource fs, ParsedFile<E> parsed){
+		for(E entry : parsed.entries){
+			String dup = this.testDuplicate(entry);
+			if(this.entries.containsKey(entry.getKey())){
+				Skb_Console.conError("{}: duplicate key <{}> found in file <{}>", new Object[]{this.cs.getAppName(), entry.getKey(), fs.getAbsoluteName()});
+				this.errors++;
+			}
+			else if(dup!=null){
+				Skb_Console.conError("{}: entry already in map: k1 <{}> <> k2 <{}> found in file <{}>", new Object[]{this.cs.getAppName(), dup, entry.getKey(), fs.getAbsoluteName()});
+				this.errors++;
+			}
+			else{
+				if(this.excluded==null || (!ArrayUtils.contains(this.excluded, entry.getCompareString()))){
+					this.entries.put(entry.getKey(), entry);
+					this.sorted = null;
+					if(entry.getDuplicateSignature()!=null){
+						this.duplicates.put(entry.getDuplicateSignature(), entry.getKey());
+					}
+				}
+			}
+		}
+
+		if(this.cs.getIncremental()){
+			this.sources.put(fs.getAbsoluteName(), parsed.entries);
+		}
+
+		if(parsed.error==null){
+			if(parsed.fingerprint!=null){
+				this.fingerprints.put(fs.getAbsoluteName(), parsed.fingerprint);
 			}
+			this.files++;
+			return 0;
 		}
 
+		this.errors++;
+		if(parsed.error instanceof IllegalArgumentException){
+			Skb_Console.conError("{}: problem creating entry: <{}> in file <{}>", new Object[]{this.cs.getAppName(), parsed.error.getMessage(), fs.getAbsoluteName()});
+		}
+		else if(parsed.error instanceof URISyntaxException){
+			Skb_Console.conError("{}: problem creating a URI for a link: <{}> in file <{}>", new Object[]{this.cs.getAppName(), parsed.error.getMessage(), fs.getAbsoluteName()});
+		}
+		else if(parsed.error instanceof NullPointerException){
+			parsed.error.printStackTrace();
+		}
+		else{
+			Skb_Console.conError("reading acronym from JSON failed with exception <{}>, cause <{}> and message <{}> in file <{}>", new Object[]{parsed.error.getClass().getSimpleName(), parsed.error.getCause(), parsed.error.getMessage(), fs.getAbsoluteName()});
+		}
+		return 1;
+	}
+
+	/**
+	 * Tests if an entry is a duplicate of an entry already in the data set.
+	 * Entries with a duplicate signature are looked up in the signature index, all others are tested by the entry itself.
+	 * @param entry the entry to test
+	 * @return key of the duplicate entry, null if none found
+	 */
+	@SuppressWarnings("unchecked")
+	String testDuplicate(E entry){
+		Object signature = entry.getDuplicateSignature();
+		if(signature!=null){
+			String key = this.duplicates.get(signature);
+			return (key!=null && this.entries.containsKey(key))?key:null;
+		}
+		return entry.testDuplicate((Collection<DataEntry>) this.entries.values());
+	}
+
+	/**
+	 * Replaces all link tokens in the entries (and their entry objects) by the linked entries.
+	 * A link that cannot be resolved is logged, counted as a problem of the entry, and removed from the entry.
+	 * @return number of resolved links
+	 */
+	public int resolveLinks(){
+		this.sorted = null;
+		int ret = 0;
+		for(E entry : this.entries.values()){
+			ret += this.resolveLinks(entry.getKey(), entry.getEntryMap());
+		}
 		return ret;
 	}
 
+	/**
+	 * Replaces all link tokens in an entry map, recursing into entry objects.
+	 * @param key key of the entry the map belongs to, for logging
+	 * @param map the entry map
+	 * @return number of resolved links
+	 */
+	int resolveLinks(String key, Map<EntryKey, Object> map){
+		int ret = 0;
+		Iterator<Map.Entry<EntryKey, Object>> it = map.entrySet().iterator();
+		while(it.hasNext()){
+			Map.Entry<EntryKey, Object> me = it.next();
+			if(me.getValue() instanceof LinkToken){
+				try{
+					me.setValue(((LinkToken)me.getValue()).getTarget());
+					ret++;
+				}
+				catch(IllegalArgumentException iae){
+					Skb_Console.conError("{}: problem resolving link for entry <{}>: {}", new Object[]{this.cs.getAppName(), key, iae.getMessage()});
+					this.linkErrors.merge(key, 1, Integer::sum);
+					it.remove();
+				}
+			}
+			else if(me.getValue() instanceof EntryObject){
+				ret += this.resolveLinks(key, ((EntryObject)me.getValue()).getEntryMap());
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Tests that all link tokens in the entries (and their entry objects) can be resolved, without resolving them.
+	 * A link that cannot be resolved is logged, counted as a problem of the entry, and removed from the entry, as for {@link #resolveLinks()}.
+	 * @return number of checked links
+	 */
+	public int checkLinks(){
+		this.sorted = null;
+		int ret = 0;
+		for(E entry : this.entries.values()){
+			ret += this.checkLinks(entry.getKey(), entry.getEntryMap());
+		}
+		return ret;
+	}
+
+	/**
+	 * Tests all link tokens in an entry map, recursing into entry objects.
+	 * @param key key of the entry the map belongs to, for logging
+	 * @param map the entry map
+	 * @return number of checked links
+	 */
+	int checkLinks(String key, Map<EntryKey, Object> map){
+		int ret = 0;
+		Iterator<Map.Entry<EntryKey, Object>> it = map.entrySet().iterator();
+		while(it.hasNext()){
+			Map.Entry<EntryKey, Object> me = it.next();
+			if(me.getValue() instanceof LinkToken){
+				try{
+					((LinkToken)me.getValue()).check();
+					ret++;
+				}
+				catch(IllegalArgumentException iae){
+					Skb_Console.conError("{}: problem resolving link for entry <{}>: {}", new Object[]{this.cs.getAppName(), key, iae.getMessage()});
+					this.linkErrors.merge(key, 1, Integer::sum);
+					it.remove();
+				}
+			}
+			else if(me.getValue() instanceof EntryObject){
+				ret += this.checkLinks(key, ((EntryObject)me.getValue()).getEntryMap());
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Sets the loaded types for all link tokens that have none, for instance after the data set was restored from a snapshot.
+	 * @param loadedTypes loaded types to resolve links against
+	 */
+	void attachLinks(LoadedTypeMap loadedTypes){
+		for(E entry : this.entries.values()){
+			this.attachLinks(entry.getEntryMap(), loadedTypes);
+		}
+	}
+
+	/**
+	 * Sets the loaded types for all link tokens in an entry map, recursing into entry objects.
+	 * @param map the entry map
+	 * @param loadedTypes loaded types to resolve links against
+	 */
+	void attachLinks(Map<EntryKey, Object> map, LoadedTypeMap loadedTypes){
+		for(Object value : map.values()){
+			if(value instanceof LinkToken){
+				((LinkToken)value).attach(loadedTypes);
+			}
+			else if(value instanceof EntryObject){
+				this.attachLinks(((EntryObject)value).getEntryMap(), loadedTypes);
+			}
+		}
+	}
+
 	/**
 	 * Returns the number of read files.
 	 * @return number of files read
@@ -180,18 +632,54 @@ public class DataSet<E extends DataEntry> {
 	}
 
 	/**
-	 * Returns loaded data set.
-	 * @return loaded data set, empty if none loaded or found
+	 * Returns the number of problems reported while loading.
+	 * @return number of files that failed to load plus number of rejected duplicate entries plus number of links that could not be resolved
+	 */
+	public int getErrorNumber(){
+		int ret = this.errors;
+		for(int links : this.linkErrors.values()){
+			ret += links;
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns loaded data set, sorted by the natural order of the entries.
+	 * The sorted array is built once and kept until the data set changes, large sets are sorted in parallel.
+	 * @return unmodifiable sorted list of entries, empty if none loaded or found
 	 */
-	public TreeSet<E> getEntries(){
-		return new TreeSet<E>(this.entries.values());
+	@SuppressWarnings("unchecked")
+	public List<E> getEntries(){
+		DataEntry[] ret = this.sorted;
+		if(ret==null){
+			ret = this.entries.values().toArray(new DataEntry[this.entries.size()]);
+			Arrays.parallelSort(ret);
+			this.sorted = ret;
+		}
+		return (List<E>)Collections.unmodifiableList(Arrays.asList(ret));
 	}
 
 	/**
 	 * Returns the loaded data map.
-	 * @return loaded data map, empty if none loaded or found
+	 * @return unmodifiable loaded data map, empty if none loaded or found, use {@link #removeEntry(String)} to remove entries
 	 */
 	public Map<String, E> getMap(){
-		return this.entries;
+		return Collections.unmodifiableMap(this.entries);
+	}
+
+	/**
+	 * Entries parsed from a single file, not yet added to the data set.
+	 * @param <E> type of the data entry
+	 */
+	static class ParsedFile<E> {
+
+		/** Entries in the order of the file. */
+		final List<E> entries = new ArrayList<>();
+
+		/** Exception that stopped parsing the file, null if none. */
+		Exception error;
+
+		/** Fingerprint of the parsed file content, null if the file could not be read or incremental reload is not used. */
+		FileFingerprint fingerprint;
 	}
 }
\ No newline at end of file
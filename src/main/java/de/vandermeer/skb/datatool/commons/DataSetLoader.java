@@ -15,6 +15,7 @@
 
 package de.vandermeer.skb.datatool.commons;
 
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.io.filefilter.DirectoryFileFilter;
@@ -24,7 +25,7 @@ import org.apache.commons.io.filefilter.WildcardFileFilter;
 import de.vandermeer.skb.base.console.Skb_Console;
 import de.vandermeer.skb.base.info.CommonsDirectoryWalker;
 import de.vandermeer.skb.base.info.DirectoryLoader;
-import de.vandermeer.skb.base.info.FileSourceList;
+import de.vandermeer.skb.base.info.FileSource;
 
 /**
  * A loader for a data set.
@@ -92,6 +93,7 @@ public interface DataSetLoader<E extends DataEntry> {
 
 	/**
 	 * Loads a set of data entries.
+	 * Required types that are not yet loaded (or claimed by another loader) are loaded first.
 	 * @param supportedTypes the entry types that are supported for loading
 	 * @param loadedTypes types that have been already loaded
 	 */
@@ -104,7 +106,7 @@ public interface DataSetLoader<E extends DataEntry> {
 				}
 				else{
 					dsl.setCs(this);
-					if(!loadedTypes.containsKey(dsl.getDataEntryType())){
+					if(loadedTypes.claim(dsl.getDataEntryType())){
 						dsl.load(supportedTypes, loadedTypes);
 					}
 				}
@@ -151,26 +153,56 @@ public interface DataSetLoader<E extends DataEntry> {
 	/**
 	 * Loads a data set with entries, does consistency checks, marks errors, translates encodings.
 	 * The local link map will be cleared.
+	 * Files are taken from the directory index of the core settings, if set, otherwise the input directory is walked.
+	 * If the core settings request incremental reload and the loader has a previous data set, only changed, added, or removed files are parsed and the previous data set is patched.
 	 * @param entryType the data entry type
 	 * @param excluded a set of characters excluded from translations, null or empty if not applicable
 	 * @return a fully loaded, checked data set on success, null on error (errors are logged)
 	 */
 	default DataSet<E> loadFiles(DataEntryType entryType, String[] excluded){
-		IOFileFilter fileFilter = new WildcardFileFilter(new String[]{
-				"*." + entryType.getInputFileExtension() + ".json"
-		});
-		DirectoryLoader dl = new CommonsDirectoryWalker(this.getCs().getInputDir(), DirectoryFileFilter.INSTANCE, fileFilter);
-		if(dl.getLoadErrors().size()>0){
-			Skb_Console.conError("{}: errors loading files from directory <{}>\n{}", new Object[]{this.getCs().getAppName(), this.getCs().getInputDir(), dl.getLoadErrors().render()});
-			return null;
+		List<FileSource> fsl;
+		DirectoryIndex index = this.getCs().getDirectoryIndex();
+		if(index!=null){
+			fsl = index.getFiles(entryType.getInputFileExtension());
+		}
+		else{
+			IOFileFilter fileFilter = new WildcardFileFilter(new String[]{
+					"*." + entryType.getInputFileExtension() + ".json"
+			});
+			DirectoryLoader dl = new CommonsDirectoryWalker(this.getCs().getInputDir(), DirectoryFileFilter.INSTANCE, fileFilter);
+			if(dl.getLoadErrors().size()>0){
+				Skb_Console.conError("{}: errors loading files from directory <{}>\n{}", new Object[]{this.getCs().getAppName(), this.getCs().getInputDir(), dl.getLoadErrors().render()});
+				return null;
+			}
+			fsl = dl.load().getSource();
 		}
 
-		DataSet<E> ds = this.newSetInstance();
-		FileSourceList fsl = dl.load();
-		ds.load(fsl.getSource(), entryType.getInputFileExtension());
+		DataSet<E> ds = (this.getCs().getIncremental())?this.getPreviousSet():null;
+		if(ds==null){
+			ds = this.newSetInstance();
+			ds.load(fsl, entryType.getInputFileExtension());
+		}
+		else{
+			ds.reload(fsl, entryType.getInputFileExtension());
+		}
+		if(this.getCs().getIncremental()){
+			this.setPreviousSet(ds);
+		}
 		return ds;
 	}
 
+	/**
+	 * Returns the data set of the last load, used for incremental reload.
+	 * @return previous data set, null if none loaded or incremental reload not used
+	 */
+	DataSet<E> getPreviousSet();
+
+	/**
+	 * Sets the data set of the last load, used for incremental reload.
+	 * @param ds previous data set, null to load all files on the next load
+	 */
+	void setPreviousSet(DataSet<E> ds);
+
 	/**
 	 * Returns a new instance of the data set the loader supports.
 	 * @return new data set instance
@@ -15,14 +15,13 @@
 
 package de.vandermeer.skb.datatool.commons;
 
-import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.ClassUtils;
-import org.apache.commons.lang3.StringUtils;
 
 /**
  * Utilities to load data from maps.
@@ -47,6 +46,17 @@ public abstract class DataUtilities {
 		return null;
 	}
 
+	/**
+	 * Loads data if the given key points to a string, without any de-references or translation, using the string pool of the core settings.
+	 * @param key the key pointing to the map entry
+	 * @param map key/value mappings to load the key from
+	 * @param cs core settings with the string pool
+	 * @return null on failure (key not in map, value not of type string), loaded string otherwise (can also be null or empty, no tests done here)
+	 */
+	public static String loadDataString(EntryKey key, Map<?, ?> map, CoreSettings cs){
+		return cs.getStringPool().intern(loadDataString(key, map));
+	}
+
 	/**
 	 * Loads an entry, does no link substitution.
 	 * @param schema the entry's schema for auto loading and testing
@@ -67,11 +77,11 @@ public abstract class DataUtilities {
 	 * @param map key/value mappings to load the key from
 	 * @param loadedTypes loaded types as lookup for links
 	 * @param cs core settings required for loading data
-	 * @return mapping of entry keys to objects loaded
+	 * @return mapping of entry keys to objects loaded, a compact entry map if the schema provides slots
 	 * @throws URISyntaxException if creating a URI for an SKB link failed
 	 */
 	public static Map<EntryKey, Object> loadEntry(DataEntrySchema schema, String keyStart, Map<?, ?> map, LoadedTypeMap loadedTypes, CoreSettings cs) throws URISyntaxException {
-		Map<EntryKey, Object> ret = new HashMap<>();
+		Map<EntryKey, Object> ret = (schema.getSlots()!=null)?new CompactEntryMap(schema.getSlots()):new HashMap<>();
 		for(Entry<EntryKey, Boolean> key : schema.getKeyMap().entrySet()){
 			Object obj = loadData(key.getKey(), keyStart, map, loadedTypes, cs);
 			if(obj!=null){
@@ -81,8 +91,26 @@ public abstract class DataUtilities {
 		return ret;
 	}
 
+	/**
+	 * Returns an integer value from an entry map, without boxing for compact entry maps.
+	 * @param map the entry map
+	 * @param key the key of the value
+	 * @param defaultValue value to return if the key is not set or not an integer
+	 * @return value for the key, default value if not set
+	 */
+	public static int getInt(Map<EntryKey, Object> map, EntryKey key, int defaultValue){
+		if(map instanceof CompactEntryMap){
+			return ((CompactEntryMap)map).getInt(key, defaultValue);
+		}
+		Object ret = map.get(key);
+		return (ret instanceof Integer)?(Integer)ret:defaultValue;
+	}
+
 	/**
 	 * Takes the given entry map and tries to generate a special data object from it.
+	 * SKB links are resolved, or returned as a link token if the core settings do not request eager link resolution.
+	 * Strings are taken from the string pool of the core settings.
+	 * Entry objects are created by the factory registered for the key, keys without a factory fall back to reflection.
 	 * @param key the key pointing to the map entry
 	 * @param keyStart string used to start a key
 	 * @param map key/value mappings to load the key from
@@ -99,19 +127,31 @@ public abstract class DataUtilities {
 
 		Object data = map.get(key.getKey());
 		if(key.getSkbUri()!=null && data instanceof String){
+			if(cs.getLinkResolution()!=LinkResolution.EAGER){
+				return new LinkToken(cs.getStringPool().intern((String)data), loadedTypes);
+			}
 			return loadLink(data, loadedTypes);
 		}
 
 		if(key.getType().equals(String.class) && data instanceof String){
 			if(key.useTranslator()==true && cs.getTranslator()!=null){
-				return cs.getTranslator().translate((String)data);
+				return cs.getStringPool().intern(cs.translate((String)data));
 			}
-			return data;
+			return cs.getStringPool().intern((String)data);
 		}
 		if(key.getType().equals(Integer.class) && data instanceof Integer){
 			return data;
 		}
 
+		Supplier<? extends EntryObject> factory = EntryObjectRegistry.get(key);
+		if(factory!=null){
+			EntryObject eo = factory.get();
+			if(data instanceof Map){
+				eo.loadObject(keyStart, data, loadedTypes, cs);
+			}
+			return eo;
+		}
+
 		if(ClassUtils.isAssignable(key.getType(), EntryObject.class)){
 			EntryObject eo;
 			try {
@@ -121,13 +161,8 @@ public abstract class DataUtilities {
 				}
 				return eo;
 			}
-			catch (InstantiationException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-			catch (IllegalAccessException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
+			catch (InstantiationException | IllegalAccessException e) {
+				throw new IllegalArgumentException("cannot create entry object of type <" + key.getType().getSimpleName() + "> for key <" + key.getKey() + ">, no factory registered", e);
 			}
 		}
 
@@ -150,33 +185,21 @@ public abstract class DataUtilities {
 			throw new IllegalArgumentException("trying to load a link, but no loaded types given");
 		}
 
-		URI uri = new URI(skbLink.toString());
-		if(!"skb".equals(uri.getScheme())){
-			throw new IllegalArgumentException("unknown scheme in link <" + skbLink +">");
-		}
-
-		String uriReq = uri.getScheme() + "://" + uri.getAuthority();
-		DataEntryType type = null;
-		for(DataEntryType det : loadedTypes.keySet()){
-			if(uriReq.equals(det.getLinkUri())){
-				type = det;
-				break;
-			}
-		}
-		if(type==null){
-			throw new IllegalArgumentException("no data entry type for link <" + uri.getScheme() + "://" + uri.getAuthority() +">");
-		}
-
-		@SuppressWarnings("unchecked")
-		Map<String, Object> map = (Map<String, Object>) loadedTypes.getTypeMap(type);
-		if(map==null){
-			throw new IllegalArgumentException("no entry for type <" + type.getType() + "> in link map");
-		}
+		return loadedTypes.resolveLink(skbLink.toString());
+	}
 
-		String key = StringUtils.substringAfterLast(uri.getPath(), "/");
+	/**
+	 * Returns the value of an entry map for a key, with a link token replaced by the linked entry.
+	 * The token is resolved if necessary.
+	 * @param map the entry map
+	 * @param key the key to look up
+	 * @return value for the key, linked entry for a link token, null if the key is not set
+	 * @throws IllegalArgumentException if a link token cannot be resolved
+	 */
+	public static Object getLinked(Map<EntryKey, Object> map, EntryKey key){
 		Object ret = map.get(key);
-		if(ret==null){
-			throw new IllegalArgumentException("no entry for <" + uri.getAuthority() + "> key <" + key + "> in link map");
+		if(ret instanceof LinkToken){
+			return ((LinkToken)ret).getTarget();
 		}
 		return ret;
 	}
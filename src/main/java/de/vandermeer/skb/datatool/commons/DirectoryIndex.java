@@ -0,0 +1,101 @@
+/* Copyright 2015 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.commons;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.filefilter.DirectoryFileFilter;
+import org.apache.commons.io.filefilter.WildcardFileFilter;
+import org.apache.commons.lang3.StringUtils;
+
+import de.vandermeer.skb.base.info.CommonsDirectoryWalker;
+import de.vandermeer.skb.base.info.DirectoryLoader;
+import de.vandermeer.skb.base.info.FileSource;
+import de.vandermeer.skb.base.info.MsgList;
+
+/**
+ * Index of all entry files in an input directory, grouped by entry file extension.
+ * The directory is walked once when the index is created, all loaders of a run then take their files from the index.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class DirectoryIndex {
+
+	/** Entry files mapped by entry file extension, in the order of the directory walk. */
+	private final Map<String, List<FileSource>> files;
+
+	/** Errors of the directory walk. */
+	private final MsgList loadErrors;
+
+	/**
+	 * Returns a new index, walking the input directory.
+	 * @param inputDir the input directory
+	 */
+	public DirectoryIndex(String inputDir){
+		this.files = new HashMap<>();
+		DirectoryLoader dl = new CommonsDirectoryWalker(inputDir, DirectoryFileFilter.INSTANCE, new WildcardFileFilter("*.json"));
+		this.loadErrors = dl.getLoadErrors();
+		if(this.loadErrors.size()==0){
+			for(FileSource fs : dl.load().getSource()){
+				//file name is "name.ext.json", files without an entry extension are ignored
+				String name = StringUtils.removeEnd(fs.asFile().getName(), ".json");
+				if(name.contains(".")){
+					String ext = StringUtils.substringAfterLast(name, ".");
+					if(!this.files.containsKey(ext)){
+						this.files.put(ext, new ArrayList<>());
+					}
+					this.files.get(ext).add(fs);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns all files for an entry file extension.
+	 * @param ext the entry file extension (without dots and without ".json")
+	 * @return unmodifiable list of files in the order of the directory walk, empty if none found
+	 */
+	public List<FileSource> getFiles(String ext){
+		List<FileSource> ret = this.files.get(ext);
+		return (ret==null)?Collections.emptyList():Collections.unmodifiableList(ret);
+	}
+
+	/**
+	 * Returns all entry files of the index.
+	 * @return new list of the files of all entry file extensions, empty if none found
+	 */
+	public List<FileSource> getFiles(){
+		List<FileSource> ret = new ArrayList<>();
+		for(List<FileSource> files : this.files.values()){
+			ret.addAll(files);
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the errors of the directory walk.
+	 * @return errors, empty if none occurred
+	 */
+	public MsgList getLoadErrors(){
+		return this.loadErrors;
+	}
+}
@@ -15,11 +15,10 @@
 
 package de.vandermeer.skb.datatool.commons;
 
+import java.io.Serializable;
 import java.net.URISyntaxException;
 import java.util.Map;
 
-import org.apache.commons.lang3.text.StrBuilder;
-
 /**
  * Base of the special data objects.
  *
@@ -27,7 +26,7 @@ import org.apache.commons.lang3.text.StrBuilder;
  * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
  * @since      v0.0.1
  */
-public interface EntryObject {
+public interface EntryObject extends Serializable {
 
 	/**
 	 * Loads an entry object from a given map with tests against expected keys.
@@ -56,9 +55,8 @@ public interface EntryObject {
 	 * @throws IllegalArgumentException if any of the required arguments or map entries are not set or empty
 	 */
 	default void load(String keyStart, Object data, LoadedTypeMap loadedTypes, CoreSettings cs) throws URISyntaxException {
-		StrBuilder err = this.getSchema().testSchema(data);
-		if(err.size()>0){
-			throw new IllegalArgumentException(err.toString());
+		if(!this.getSchema().isValid(data)){
+			throw new IllegalArgumentException(this.getSchema().testSchema(data).toString());
 		}
 		this.loadObject(keyStart, data, loadedTypes, cs);
 	}
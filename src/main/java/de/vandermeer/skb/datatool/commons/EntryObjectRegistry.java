@@ -0,0 +1,61 @@
+/* Copyright 2015 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.commons;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry of factories for entry objects, mapped by the entry key that holds the object.
+ * Keys for entry objects register their factory when they are defined, so loading an object is a direct constructor call without reflection.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public abstract class EntryObjectRegistry {
+
+	/** Factories mapped by entry key. */
+	private static final Map<EntryKey, Supplier<? extends EntryObject>> FACTORIES = new ConcurrentHashMap<>();
+
+	/**
+	 * Registers a factory for the entry objects of a key.
+	 * @param key the entry key, its type should be the class of the created objects
+	 * @param factory factory creating new, empty entry objects
+	 * @return the key, to allow registering in a key definition
+	 * @throws IllegalArgumentException if any argument is null
+	 */
+	public static EntryKey register(EntryKey key, Supplier<? extends EntryObject> factory){
+		if(key==null){
+			throw new IllegalArgumentException("entry key cannot be null");
+		}
+		if(factory==null){
+			throw new IllegalArgumentException("factory for entry key <" + key.getKey() + "> cannot be null");
+		}
+		FACTORIES.put(key, factory);
+		return key;
+	}
+
+	/**
+	 * Returns the factory for the entry objects of a key.
+	 * @param key the entry key
+	 * @return factory, null if none registered
+	 */
+	public static Supplier<? extends EntryObject> get(EntryKey key){
+		return (key==null)?null:FACTORIES.get(key);
+	}
+}
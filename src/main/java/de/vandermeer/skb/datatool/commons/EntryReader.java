@@ -0,0 +1,85 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.commons;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectReader;
+import org.codehaus.jackson.type.TypeReference;
+
+/**
+ * Pre-configured reader for entry files, shared by all loaders (and load threads) of a run.
+ * The reader is immutable and thread-safe, so Jackson's deserializer caches are built once per run and not once per file.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class EntryReader {
+
+	/** Factory for parsers, configured to allow comments. */
+	private final JsonFactory factory;
+
+	/** Reader for a single entry object. */
+	private final ObjectReader reader;
+
+	/**
+	 * Returns a new entry reader.
+	 */
+	public EntryReader(){
+		ObjectMapper om = new ObjectMapper();
+		om.configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+		this.factory = om.getJsonFactory();
+		this.reader = om.reader(new TypeReference<HashMap<String, Object>>(){});
+	}
+
+	/**
+	 * Returns a new parser for an entry file.
+	 * @param file the file to parse
+	 * @return new parser, must be closed by the caller
+	 * @throws IOException if the file cannot be opened
+	 */
+	public JsonParser createParser(File file) throws IOException {
+		return this.factory.createJsonParser(file);
+	}
+
+	/**
+	 * Returns a new parser for an entry file read from a stream.
+	 * @param in stream with the file content, closed when the parser is closed
+	 * @return new parser, must be closed by the caller
+	 * @throws IOException if the parser cannot be created
+	 */
+	public JsonParser createParser(InputStream in) throws IOException {
+		return this.factory.createJsonParser(in);
+	}
+
+	/**
+	 * Reads a single entry object, the parser must point to the start of the object.
+	 * @param jp the parser
+	 * @return mapping of entry keys to values
+	 * @throws IOException if reading or mapping the object failed
+	 */
+	public Map<String, Object> readEntry(JsonParser jp) throws IOException {
+		return this.reader.readValue(jp);
+	}
+}
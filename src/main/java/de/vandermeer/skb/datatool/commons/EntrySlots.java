@@ -0,0 +1,155 @@
+/* Copyright 2015 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.commons;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Dense slot ordinals for the entry keys of a schema, used by compact entry maps.
+ * Keys for integer values get a slot in a separate primitive array, all other keys get a slot in an object array.
+ * Keys not in the schema (for instance local keys set by an entry) get a new object slot when first used.
+ * Reading slots is lock-free, adding a slot copies the slot tables.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class EntrySlots implements Serializable {
+
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
+	/** Maximum number of integer slots, one presence bit per slot. */
+	public final static int MAX_INT_SLOTS = 64;
+
+	/** Object slots mapped by key. */
+	private volatile Map<EntryKey, Integer> slots;
+
+	/** Keys of the object slots, by slot. */
+	private volatile EntryKey[] keys;
+
+	/** Integer slots mapped by key, fixed when created. */
+	private final Map<EntryKey, Integer> intSlots;
+
+	/** Keys of the integer slots, by slot. */
+	private final EntryKey[] intKeys;
+
+	/**
+	 * Returns new slots for a set of keys.
+	 * @param schemaKeys the keys of a schema
+	 */
+	public EntrySlots(Collection<EntryKey> schemaKeys){
+		Map<EntryKey, Integer> slots = new IdentityHashMap<>();
+		Map<EntryKey, Integer> intSlots = new IdentityHashMap<>();
+		for(EntryKey key : schemaKeys){
+			if(Integer.class.equals(key.getType()) && intSlots.size()<MAX_INT_SLOTS){
+				intSlots.put(key, intSlots.size());
+			}
+			else{
+				slots.put(key, slots.size());
+			}
+		}
+
+		this.keys = new EntryKey[slots.size()];
+		for(Map.Entry<EntryKey, Integer> e : slots.entrySet()){
+			this.keys[e.getValue()] = e.getKey();
+		}
+		this.intKeys = new EntryKey[intSlots.size()];
+		for(Map.Entry<EntryKey, Integer> e : intSlots.entrySet()){
+			this.intKeys[e.getValue()] = e.getKey();
+		}
+		this.slots = slots;
+		this.intSlots = intSlots;
+	}
+
+	/**
+	 * Returns the object slot of a key.
+	 * @param key the key
+	 * @return slot, -1 if the key has no object slot
+	 */
+	int slot(Object key){
+		Integer ret = this.slots.get(key);
+		return (ret==null)?-1:ret;
+	}
+
+	/**
+	 * Returns the object slot of a key, adding a new slot if the key has none.
+	 * @param key the key
+	 * @return slot of the key
+	 */
+	synchronized int addSlot(EntryKey key){
+		Integer ret = this.slots.get(key);
+		if(ret!=null){
+			return ret;
+		}
+		int slot = this.keys.length;
+		EntryKey[] keys = Arrays.copyOf(this.keys, slot + 1);
+		keys[slot] = key;
+		Map<EntryKey, Integer> slots = new IdentityHashMap<>(this.slots);
+		slots.put(key, slot);
+		this.keys = keys;
+		this.slots = slots;
+		return slot;
+	}
+
+	/**
+	 * Returns the integer slot of a key.
+	 * @param key the key
+	 * @return slot, -1 if the key has no integer slot
+	 */
+	int intSlot(Object key){
+		Integer ret = this.intSlots.get(key);
+		return (ret==null)?-1:ret;
+	}
+
+	/**
+	 * Returns the key of an object slot.
+	 * @param slot the slot
+	 * @return key of the slot
+	 */
+	EntryKey getKey(int slot){
+		return this.keys[slot];
+	}
+
+	/**
+	 * Returns the key of an integer slot.
+	 * @param slot the slot
+	 * @return key of the slot
+	 */
+	EntryKey getIntKey(int slot){
+		return this.intKeys[slot];
+	}
+
+	/**
+	 * Returns the number of object slots.
+	 * @return number of object slots
+	 */
+	int size(){
+		return this.keys.length;
+	}
+
+	/**
+	 * Returns the number of integer slots.
+	 * @return number of integer slots
+	 */
+	int intSize(){
+		return this.intKeys.length;
+	}
+}
@@ -0,0 +1,102 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.commons;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Fingerprint of a loaded file (size, modification time, content hash), used to detect changed files for an incremental reload.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class FileFingerprint implements Serializable {
+
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
+	/** File size in bytes. */
+	private final long size;
+
+	/** File modification time, taken before the content was read. */
+	private long modified;
+
+	/** Hash of the file content. */
+	private final byte[] hash;
+
+	/**
+	 * Returns a new fingerprint.
+	 * @param modified modification time of the file, must be taken before the content was read
+	 * @param size number of bytes read from the file
+	 * @param hash hash of the file content, as calculated by a digest from {@link #newDigest()}
+	 */
+	public FileFingerprint(long modified, long size, byte[] hash){
+		this.size = size;
+		this.modified = modified;
+		this.hash = hash;
+	}
+
+	/**
+	 * Tests if a file is unchanged with respect to this fingerprint.
+	 * A file with the same size and modification time is unchanged.
+	 * A file with the same size but a different modification time is unchanged if the content hash is the same, the fingerprint then takes the new modification time.
+	 * @param file the file to test
+	 * @return true if the file is unchanged, false if it has changed or cannot be read
+	 */
+	public boolean isUnchanged(File file){
+		if(file.length()!=this.size){
+			return false;
+		}
+		long modified = file.lastModified();
+		if(modified==this.modified){
+			return true;
+		}
+		try(DigestInputStream in = new DigestInputStream(Files.newInputStream(file.toPath()), newDigest())){
+			byte[] buffer = new byte[8192];
+			while(in.read(buffer)!=-1){
+				//read to the end, the digest stream hashes all content
+			}
+			if(Arrays.equals(this.hash, in.getMessageDigest().digest())){
+				this.modified = modified;
+				return true;
+			}
+		}
+		catch(IOException ignore){}
+		return false;
+	}
+
+	/**
+	 * Returns a new digest for the hash of file content, used with a {@link DigestInputStream} so that files are hashed while they are read.
+	 * @return new SHA-256 digest
+	 */
+	public static MessageDigest newDigest(){
+		try{
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch(NoSuchAlgorithmException nsae){
+			//every Java platform is required to support SHA-256
+			throw new IllegalStateException(nsae);
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/* Copyright 2015 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.commons;
+
+/**
+ * Modes for resolving SKB links of loaded entries.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public enum LinkResolution {
+
+	/** Links are resolved while an entry is loaded, the linked type must be loaded before. */
+	EAGER,
+
+	/** Links are stored as link tokens while entries are loaded, all tokens are then resolved in one pass after all types are loaded. */
+	BATCH,
+
+	/** Links are stored as link tokens while entries are loaded, a token is resolved when the linked entry is first requested (for instance by a template). */
+	LAZY,
+	;
+
+	/**
+	 * Returns the mode for a name, ignoring case.
+	 * @param name mode name
+	 * @return mode, null if name is null or not a known mode
+	 */
+	public static LinkResolution fromName(String name){
+		if(name!=null){
+			for(LinkResolution mode : values()){
+				if(mode.name().equalsIgnoreCase(name)){
+					return mode;
+				}
+			}
+		}
+		return null;
+	}
+}
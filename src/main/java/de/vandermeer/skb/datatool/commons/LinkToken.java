@@ -0,0 +1,132 @@
+/* Copyright 2015 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.commons;
+
+import java.io.Serializable;
+import java.net.URISyntaxException;
+
+/**
+ * Placeholder for an SKB link in an entry map, resolved to the linked entry when needed.
+ * The resolved entry is memoized, so a token is resolved only once.
+ * Concurrent first calls may both resolve the link, they will find the same entry.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class LinkToken implements Serializable {
+
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The link. */
+	private final String link;
+
+	/** Loaded types to resolve the link against. */
+	private transient LoadedTypeMap loadedTypes;
+
+	/** The linked entry, null if not yet resolved. */
+	private volatile Object target;
+
+	/**
+	 * Returns a new link token.
+	 * @param link the link
+	 * @param loadedTypes loaded types to resolve the link against
+	 * @throws IllegalArgumentException if any argument is null
+	 */
+	public LinkToken(String link, LoadedTypeMap loadedTypes){
+		if(link==null){
+			throw new IllegalArgumentException("skb link null");
+		}
+		if(loadedTypes==null){
+			throw new IllegalArgumentException("trying to load a link, but no loaded types given");
+		}
+		this.link = link;
+		this.loadedTypes = loadedTypes;
+	}
+
+	/**
+	 * Returns the link.
+	 * @return link
+	 */
+	public String getLink(){
+		return this.link;
+	}
+
+	/**
+	 * Sets the loaded types to resolve the link against, if none are set (for instance for a token restored from a snapshot).
+	 * @param loadedTypes loaded types
+	 */
+	void attach(LoadedTypeMap loadedTypes){
+		if(this.loadedTypes==null){
+			this.loadedTypes = loadedTypes;
+		}
+	}
+
+	/**
+	 * Tests if the token has been resolved.
+	 * @return true if resolved, false otherwise
+	 */
+	public boolean isResolved(){
+		return this.target!=null;
+	}
+
+	/**
+	 * Returns the linked entry, resolving the link on first call.
+	 * @return linked entry
+	 * @throws IllegalArgumentException if the link cannot be resolved
+	 */
+	public Object getTarget(){
+		Object ret = this.target;
+		if(ret==null){
+			ret = this.resolve();
+			this.target = ret;
+		}
+		return ret;
+	}
+
+	/**
+	 * Tests that the link can be resolved, without resolving the token (it stays lazy).
+	 * @throws IllegalArgumentException if the link cannot be resolved
+	 */
+	public void check(){
+		if(this.target==null){
+			this.resolve();
+		}
+	}
+
+	/**
+	 * Looks up the linked entry in the loaded types.
+	 * @return linked entry
+	 * @throws IllegalArgumentException if the link cannot be resolved
+	 */
+	private Object resolve(){
+		if(this.loadedTypes==null){
+			throw new IllegalArgumentException("cannot resolve link <" + this.link + ">, no loaded types given");
+		}
+		try{
+			return this.loadedTypes.resolveLink(this.link);
+		}
+		catch(URISyntaxException use){
+			throw new IllegalArgumentException("problem creating a URI for link <" + this.link + ">: " + use.getMessage(), use);
+		}
+	}
+
+	@Override
+	public String toString(){
+		return this.link;
+	}
+}
@@ -15,12 +15,19 @@
 
 package de.vandermeer.skb.datatool.commons;
 
-import java.util.HashMap;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
 
 /**
  * Mapping of data entry types to data sets for types that have been loaded.
+ * The map is safe for concurrent use, so types can be loaded and published by different threads.
+ * It also resolves SKB links to entries of loaded data sets, using an index of link authorities and a bounded cache of resolved links.
  *
  * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
  * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
@@ -31,11 +38,38 @@ public class LoadedTypeMap {
 	/** A map of other entries the loader might use for further load operations. */
 	private final Map<DataEntryType, DataSet<?>> loadedTypes;
 
+	/** Maximum number of resolved links kept in the link cache. */
+	public final static int LINK_CACHE_SIZE = 10000;
+
+	/** Types for which a load has been started. */
+	private final Set<DataEntryType> claimed;
+
+	/** Loaded types mapped by their link URI (scheme and authority). */
+	private final Map<String, DataEntryType> linkTypes;
+
+	/** Cache of resolved links, evicting the least recently used link when it reaches its maximum size. */
+	private final LruCache<String, Object> links;
+
 	/**
 	 * Returns a new loaded type map.
 	 */
 	public LoadedTypeMap(){
-		this.loadedTypes = new HashMap<>();
+		this.loadedTypes = new ConcurrentHashMap<>();
+		this.claimed = Collections.newSetFromMap(new ConcurrentHashMap<>());
+		this.linkTypes = new ConcurrentHashMap<>();
+		this.links = new LruCache<>(LINK_CACHE_SIZE);
+	}
+
+	/**
+	 * Claims the load of a type, so that every type is loaded only once even if several loaders require it.
+	 * @param type the type to load
+	 * @return true if the caller should load the type, false if it is already loaded or another caller has claimed it
+	 */
+	public boolean claim(DataEntryType type){
+		if(type==null || this.loadedTypes.containsKey(type)){
+			return false;
+		}
+		return this.claimed.add(type);
 	}
 
 	/**
@@ -47,17 +81,62 @@ public class LoadedTypeMap {
 	public LoadedTypeMap put(DataEntryType type, DataSet<?> ds){
 		if(type!=null && ds!=null){
 			this.loadedTypes.put(type, ds);
+			if(type.getLinkUri()!=null){
+				this.linkTypes.putIfAbsent(type.getLinkUri(), type);
+			}
+			this.links.clear();
 		}
 		return this;
 	}
 
+	/**
+	 * Resolves an SKB link (for instance "skb://countries/de") to the entry it points to.
+	 * Resolved links are cached, so repeated links cost a single lookup, the least recently used link is evicted when the cache is full.
+	 * @param link the link
+	 * @return the linked entry
+	 * @throws IllegalArgumentException if the link is null, has an unknown scheme, no type is loaded for its authority, or no entry has its key
+	 * @throws URISyntaxException if the link is not a valid URI
+	 */
+	public Object resolveLink(String link) throws URISyntaxException {
+		if(link==null){
+			throw new IllegalArgumentException("skb link null");
+		}
+		Object ret = this.links.get(link);
+		if(ret!=null){
+			return ret;
+		}
+
+		URI uri = new URI(link);
+		if(!"skb".equals(uri.getScheme())){
+			throw new IllegalArgumentException("unknown scheme in link <" + link +">");
+		}
+
+		DataEntryType type = this.linkTypes.get(uri.getScheme() + "://" + uri.getAuthority());
+		if(type==null){
+			throw new IllegalArgumentException("no data entry type for link <" + uri.getScheme() + "://" + uri.getAuthority() +">");
+		}
+
+		Map<String, ?> map = this.getTypeMap(type);
+		if(map==null){
+			throw new IllegalArgumentException("no entry for type <" + type.getType() + "> in link map");
+		}
+
+		String key = StringUtils.substringAfterLast(uri.getPath(), "/");
+		ret = map.get(key);
+		if(ret==null){
+			throw new IllegalArgumentException("no entry for <" + uri.getAuthority() + "> key <" + key + "> in link map");
+		}
+		this.links.put(link, ret);
+		return ret;
+	}
+
 	/**
 	 * Tests if the given key exists in the map
 	 * @param key key to test
 	 * @return true if key exists, false otherwise
 	 */
 	public boolean containsKey(Object key){
-		return this.loadedTypes.containsKey(key);
+		return (key==null)?false:this.loadedTypes.containsKey(key);
 	}
 
 	/**
@@ -66,7 +145,7 @@ public class LoadedTypeMap {
 	 * @return data set if key found, null otherwise
 	 */
 	public DataSet<?> get(Object key){
-		return this.loadedTypes.get(key);
+		return (key==null)?null:this.loadedTypes.get(key);
 	}
 
 	/**
@@ -83,7 +162,7 @@ public class LoadedTypeMap {
 	 * @return type map of the data set for the type, null if not available
 	 */
 	public Map<String, ?> getTypeMap(DataEntryType type){
-		if(this.loadedTypes.containsKey(type)){
+		if(this.containsKey(type)){
 			DataSet<?> ds = this.loadedTypes.get(type);
 			if(ds!=null){
 				return ds.getMap();
@@ -98,12 +177,10 @@ public class LoadedTypeMap {
 	 * @return size of the entry map of the associated data set, -1 if none found
 	 */
 	public int getTypeEntrySize(DataEntryType type){
-		if(this.loadedTypes.containsKey(type)){
+		if(this.containsKey(type)){
 			DataSet<?> ds = this.loadedTypes.get(type);
 			if(ds!=null){
-				if(ds.getEntries()!=null){
-					return ds.getEntries().size();
-				}
+				return ds.getMap().size();
 			}
 		}
 		return -1;
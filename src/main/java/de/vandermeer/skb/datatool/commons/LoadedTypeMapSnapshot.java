@@ -0,0 +1,199 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.commons;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.Validate;
+
+import de.vandermeer.skb.base.info.FileSource;
+
+/**
+ * A snapshot of a fully loaded type map, stored in a binary file.
+ * The snapshot is keyed by a fingerprint of the input directory (all entry files with relative path, size, and modification time) and the settings that change loaded entries (tool version, type, target, key separator, link resolution).
+ * A snapshot with a different fingerprint is ignored.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class LoadedTypeMapSnapshot {
+
+	/** Header of a snapshot file, changes when the snapshot format changes. */
+	static final String MAGIC = "skb-datatool-snapshot-2";
+
+	/** The snapshot file. */
+	private final File file;
+
+	/** Fingerprint of input directory and settings. */
+	private final String fingerprint;
+
+	/**
+	 * Returns a new snapshot.
+	 * @param fileName name of the snapshot file
+	 * @param fingerprint fingerprint of input directory and settings, see {@link #fingerprint(String, DirectoryIndex, String...)}
+	 * @throws IllegalArgumentException if any argument is blank
+	 */
+	public LoadedTypeMapSnapshot(String fileName, String fingerprint){
+		Validate.notBlank(fileName);
+		Validate.notBlank(fingerprint);
+		this.file = new File(fileName);
+		this.fingerprint = fingerprint;
+	}
+
+	/**
+	 * Calculates the fingerprint of an input directory and settings.
+	 * The files are taken from an index of the directory, so the directory is not walked again.
+	 * @param inputDir the input directory
+	 * @param index index of the input directory, all entry files in it are used
+	 * @param settings any settings that change the loaded entries
+	 * @return fingerprint as hex string
+	 * @throws IOException if the input directory cannot be read
+	 */
+	public static String fingerprint(String inputDir, DirectoryIndex index, String ... settings) throws IOException {
+		Validate.notNull(index);
+
+		MessageDigest md;
+		try{
+			md = MessageDigest.getInstance("SHA-256");
+		}
+		catch(NoSuchAlgorithmException nsae){
+			throw new IOException(nsae);
+		}
+
+		for(String setting : settings){
+			md.update((setting + "\n").getBytes(StandardCharsets.UTF_8));
+		}
+
+		Path dir = new File(inputDir).getAbsoluteFile().toPath().normalize();
+		md.update((dir + "\n").getBytes(StandardCharsets.UTF_8));
+
+		List<String> files = new ArrayList<>();
+		for(FileSource fs : index.getFiles()){
+			File f = fs.asFile();
+			files.add(dir.relativize(f.getAbsoluteFile().toPath().normalize()) + "|" + f.length() + "|" + f.lastModified());
+		}
+		Collections.sort(files);
+		for(String f : files){
+			md.update((f + "\n").getBytes(StandardCharsets.UTF_8));
+		}
+
+		return new BigInteger(1, md.digest()).toString(16);
+	}
+
+	/**
+	 * Reads the snapshot and restores all data sets in it.
+	 * @param tlMap map of supported types, used to resolve type names and entry factories
+	 * @param cs core settings for the restored data sets
+	 * @return restored type map, null if no snapshot exists, its fingerprint is different, or it cannot be read
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public LoadedTypeMap read(TypeLoaderMap tlMap, CoreSettings cs){
+		if(!this.file.canRead()){
+			return null;
+		}
+
+		Map<String, DataSet<?>> sets;
+		try(ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(this.file)))){
+			if(!MAGIC.equals(in.readUTF()) || !this.fingerprint.equals(in.readUTF())){
+				return null;
+			}
+			sets = (Map<String, DataSet<?>>)in.readObject();
+		}
+		catch(IOException | ClassNotFoundException | RuntimeException ex){
+			return null;
+		}
+
+		LoadedTypeMap ret = new LoadedTypeMap();
+		for(Entry<String, DataSet<?>> entry : sets.entrySet()){
+			DataSetLoader<?> loader = null;
+			for(DataEntryType type : tlMap.getMap().keySet()){
+				if(type.getType().equals(entry.getKey())){
+					loader = tlMap.getLoader(type);
+					break;
+				}
+			}
+			if(loader==null){
+				return null;
+			}
+			((DataSet)entry.getValue()).restore(cs, loader.getEntryFactory());
+			ret.put(loader.getDataEntryType(), entry.getValue());
+		}
+		for(DataEntryType type : ret.keySet()){
+			ret.get(type).attachLinks(ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * Writes all data sets of a loaded type map to the snapshot file.
+	 * The file is first written to a temporary file and then moved, so a failed write does not leave a broken snapshot.
+	 * @param loadedTypes the loaded types to write
+	 * @throws IOException if writing failed
+	 */
+	public void write(LoadedTypeMap loadedTypes) throws IOException {
+		Map<String, DataSet<?>> sets = new HashMap<>();
+		for(DataEntryType type : loadedTypes.keySet()){
+			sets.put(type.getType(), loadedTypes.get(type));
+		}
+
+		File dir = this.file.getAbsoluteFile().getParentFile();
+		if(dir!=null){
+			FileUtils.forceMkdir(dir);
+		}
+		File tmp = File.createTempFile("snapshot", ".tmp", dir);
+		try{
+			try(ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))){
+				out.writeUTF(MAGIC);
+				out.writeUTF(this.fingerprint);
+				out.writeObject(sets);
+			}
+			Files.move(tmp.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally{
+			Files.deleteIfExists(tmp.toPath());
+		}
+	}
+
+	/**
+	 * Returns the snapshot file.
+	 * @return snapshot file
+	 */
+	public File getFile(){
+		return this.file;
+	}
+}
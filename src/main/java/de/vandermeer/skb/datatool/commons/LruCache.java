@@ -0,0 +1,88 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.commons;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A size-bounded cache that evicts the least recently used entry when it is full.
+ * The cache is an access-ordered linked hash map behind a lock, so it is safe for concurrent use.
+ * Frequently used entries stay in the cache no matter how many other entries pass through it.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class LruCache<K, V> {
+
+	/** The cached entries, in access order. */
+	private final Map<K, V> map;
+
+	/**
+	 * Returns a new cache.
+	 * @param maxSize maximum number of cached entries
+	 * @throws IllegalArgumentException if the maximum size is smaller than 1
+	 */
+	public LruCache(int maxSize){
+		Validate.isTrue(maxSize>0, "maximum cache size must be at least 1, found <%d>", maxSize);
+		this.map = new LinkedHashMap<K, V>(16, 0.75f, true){
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest){
+				return this.size()>maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns a cached value, marking it as most recently used.
+	 * @param key the key
+	 * @return cached value, null if none cached for the key
+	 */
+	public synchronized V get(K key){
+		return this.map.get(key);
+	}
+
+	/**
+	 * Adds a value to the cache, evicting the least recently used entry if the cache is full.
+	 * @param key the key
+	 * @param value the value
+	 */
+	public synchronized void put(K key, V value){
+		this.map.put(key, value);
+	}
+
+	/**
+	 * Removes all entries from the cache.
+	 */
+	public synchronized void clear(){
+		this.map.clear();
+	}
+
+	/**
+	 * Returns the number of cached entries.
+	 * @return number of entries, never larger than the maximum size
+	 */
+	public synchronized int size(){
+		return this.map.size();
+	}
+}
@@ -0,0 +1,106 @@
+/* Copyright 2015 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.commons;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Validator compiled from a data entry schema, testing input data without creating any objects on success.
+ * Every schema key is mapped to a slot, mandatory slots are kept in a bit mask.
+ * A map is valid if all its keys have a slot and all mandatory slots are present and not empty.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class SchemaValidator {
+
+	/** Maximum number of keys a validator supports, one bit per key. */
+	public final static int MAX_KEYS = 64;
+
+	/** Slot for each key string of the schema. */
+	private final Map<String, Integer> slots;
+
+	/** Bit mask of all mandatory slots. */
+	private final long mandatory;
+
+	/**
+	 * Returns a new validator for a schema key map.
+	 * @param keyMap schema keys with a flag for mandatory (true) or optional (false)
+	 * @throws IllegalArgumentException if the map has more than {@link #MAX_KEYS} keys
+	 */
+	public SchemaValidator(Map<EntryKey, Boolean> keyMap){
+		if(keyMap.size()>MAX_KEYS){
+			throw new IllegalArgumentException("schema validator supports at most <" + MAX_KEYS + "> keys, found <" + keyMap.size() + ">");
+		}
+		this.slots = new HashMap<>();
+		long mandatory = 0;
+		for(Entry<EntryKey, Boolean> e : keyMap.entrySet()){
+			int slot = this.slots.size();
+			this.slots.put(e.getKey().getKey(), slot);
+			if(e.getValue()==true){
+				mandatory |= 1L << slot;
+			}
+		}
+		this.mandatory = mandatory;
+	}
+
+	/**
+	 * Tests input data against the schema.
+	 * @param data original data, should be a mapping of strings to objects
+	 * @return true if the data is a map that fulfills the schema, false otherwise (use the schema's test method for explanations)
+	 */
+	public boolean isValid(Object data){
+		if(!(data instanceof Map)){
+			return false;
+		}
+
+		long present = 0;
+		for(Entry<?, ?> e : ((Map<?, ?>)data).entrySet()){
+			Integer slot = this.slots.get(e.getKey());
+			if(slot==null){
+				return false;
+			}
+			long bit = 1L << slot;
+			if((this.mandatory & bit)!=0 && isEmpty(e.getValue())){
+				return false;
+			}
+			present |= bit;
+		}
+		return (present & this.mandatory)==this.mandatory;
+	}
+
+	/**
+	 * Tests if a value is empty, that is null or a string representation of length zero.
+	 * Only character sequences can have an empty representation for JSON input, all other values are tested without creating a string.
+	 * @param value the value to test
+	 * @return true if empty, false otherwise
+	 */
+	static boolean isEmpty(Object value){
+		if(value==null){
+			return true;
+		}
+		if(value instanceof CharSequence){
+			return ((CharSequence)value).length()==0;
+		}
+		if(value instanceof Number || value instanceof Boolean || value instanceof Map || value instanceof Iterable){
+			return false;
+		}
+		return value.toString().isEmpty();
+	}
+}
@@ -0,0 +1,104 @@
+/* Copyright 2015 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.commons;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of strings, so that equal strings loaded from entry files share one instance.
+ * The pool belongs to the core settings of a run, unlike {@link String#intern()} it can be cleared.
+ * The backend loader clears it at the start of every load, so that strings of replaced entries are not kept reachable in a long running process (watch mode).
+ * It is thread-safe and also counts duplicates and the (estimated) number of bytes they would have used.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class StringPool {
+
+	/** The pooled strings. */
+	private final ConcurrentHashMap<String, String> pool = new ConcurrentHashMap<>();
+
+	/** Number of strings replaced by a pooled instance. */
+	private final LongAdder duplicates = new LongAdder();
+
+	/** Estimated bytes of strings replaced by a pooled instance. */
+	private final LongAdder savedBytes = new LongAdder();
+
+	/**
+	 * Returns the pooled instance of a string, adding the string if it is not in the pool yet.
+	 * @param s the string
+	 * @return pooled instance equal to the string, null if the string was null
+	 */
+	public String intern(String s){
+		if(s==null){
+			return null;
+		}
+		String ret = this.pool.putIfAbsent(s, s);
+		if(ret==null){
+			return s;
+		}
+		if(ret!=s){
+			this.duplicates.increment();
+			this.savedBytes.add(StringPool.estimateSize(s));
+		}
+		return ret;
+	}
+
+	/**
+	 * Estimates the heap size of a string, as object plus character array with 8 byte alignment (compressed pointers).
+	 * @param s the string
+	 * @return estimated size in bytes
+	 */
+	static long estimateSize(String s){
+		return 24 + ((16 + 2L * s.length() + 7) & ~7L);
+	}
+
+	/**
+	 * Returns the number of strings in the pool.
+	 * @return number of pooled strings
+	 */
+	public int size(){
+		return this.pool.size();
+	}
+
+	/**
+	 * Returns the number of strings that have been replaced by a pooled instance.
+	 * @return number of duplicates
+	 */
+	public long getDuplicates(){
+		return this.duplicates.sum();
+	}
+
+	/**
+	 * Returns the estimated number of bytes saved by replacing strings with a pooled instance.
+	 * @return saved bytes
+	 */
+	public long getSavedBytes(){
+		return this.savedBytes.sum();
+	}
+
+	/**
+	 * Removes all strings from the pool and resets the counters.
+	 * Strings already shared stay shared, but new strings are not matched against them anymore.
+	 */
+	public void clear(){
+		this.pool.clear();
+		this.duplicates.reset();
+		this.savedBytes.reset();
+	}
+}
@@ -0,0 +1,132 @@
+/* Copyright 2015 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.commons;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Loads a data entry type and all types it requires, loading types that do not depend on each other concurrently.
+ * The scheduler builds the dependency graph of the required types from a type/loader map.
+ * Every type is loaded exactly once, a type starts loading when all types it requires are loaded.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class TypeLoadScheduler {
+
+	/** The type/loader map to build the dependency graph from. */
+	private final TypeLoaderMap tlMap;
+
+	/** Maximum number of types loaded at the same time, if the core settings do not provide a load pool. */
+	private final int threads;
+
+	/**
+	 * Returns a new scheduler.
+	 * @param tlMap type/loader map with all supported types
+	 * @param threads maximum number of types loaded at the same time
+	 * @throws IllegalArgumentException if the map is null or threads is smaller than 1
+	 */
+	public TypeLoadScheduler(TypeLoaderMap tlMap, int threads){
+		Validate.notNull(tlMap);
+		Validate.isTrue(threads>0, "number of threads must be at least 1, found <%d>", threads);
+		this.tlMap = tlMap;
+		this.threads = threads;
+	}
+
+	/**
+	 * Loads a type and all types it requires.
+	 * Types already in the loaded type map are not loaded again.
+	 * Required types that are not supported are logged by the loader requiring them, as in a sequential load.
+	 * Types are loaded on the load pool of the core settings if set, so that files parsed by the loaders use the same threads, otherwise on a pool of their own.
+	 * @param loader the loader for the main type, core settings must be set
+	 * @param loadedTypes types that have been already loaded, all newly loaded types are added
+	 * @throws IllegalArgumentException if the required types have a cycle
+	 * @throws RuntimeException any runtime exception thrown by a loader
+	 */
+	public void load(DataSetLoader<?> loader, LoadedTypeMap loadedTypes){
+		Validate.notNull(loader);
+		Validate.notNull(loader.getCs());
+		Validate.notNull(loadedTypes);
+
+		ForkJoinPool shared = loader.getCs().getLoadPool();
+		ForkJoinPool pool = (shared!=null)?shared:new ForkJoinPool(this.threads);
+		try{
+			Map<DataEntryType, CompletableFuture<Void>> tasks = new HashMap<>();
+			this.schedule(loader.getDataEntryType(), loader, loadedTypes, tasks, new HashSet<>(), pool).join();
+		}
+		catch(CompletionException ce){
+			if(ce.getCause() instanceof RuntimeException){
+				throw (RuntimeException)ce.getCause();
+			}
+			throw ce;
+		}
+		finally{
+			if(pool!=shared){
+				pool.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Creates the load task for a type, after creating the load tasks for all types it requires.
+	 * @param type the type to load
+	 * @param main the loader of the main type, provides core settings
+	 * @param loadedTypes types that have been already loaded
+	 * @param tasks all created tasks, by type
+	 * @param path types on the current path through the dependency graph, used to detect cycles
+	 * @param pool thread pool for the load tasks
+	 * @return load task for the type, completes when the type is loaded
+	 * @throws IllegalArgumentException if the required types have a cycle
+	 */
+	CompletableFuture<Void> schedule(DataEntryType type, DataSetLoader<?> main, LoadedTypeMap loadedTypes, Map<DataEntryType, CompletableFuture<Void>> tasks, Set<DataEntryType> path, ExecutorService pool){
+		if(tasks.containsKey(type)){
+			return tasks.get(type);
+		}
+		Validate.isTrue(path.add(type), "cycle in required types at type <%s>", type.getType());
+
+		List<CompletableFuture<Void>> required = new ArrayList<>();
+		if(type.getRequiredTypes()!=null){
+			for(DataEntryType rt : type.getRequiredTypes()){
+				if(this.tlMap.getMap().containsKey(rt)){
+					required.add(this.schedule(rt, main, loadedTypes, tasks, path, pool));
+				}
+			}
+		}
+		path.remove(type);
+
+		DataSetLoader<?> dsl = this.tlMap.getLoader(type);
+		CompletableFuture<Void> ret = CompletableFuture.allOf(required.toArray(new CompletableFuture<?>[required.size()])).thenRunAsync(() -> {
+			if(loadedTypes.claim(type)){
+				dsl.setCs(main);
+				dsl.load(this.tlMap.getMap(), loadedTypes);
+			}
+		}, pool);
+		tasks.put(type, ret);
+		return ret;
+	}
+}
@@ -16,6 +16,7 @@
 package de.vandermeer.skb.datatool.entries.acronyms;
 
 import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -43,6 +44,9 @@ import de.vandermeer.skb.datatool.entries.links.object.ObjectLinks;
  */
 public class AcronymEntry implements DataEntry {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	/** Acronym entry type. */
 	public static DataEntryType ENTRY_TYPE =
 			new AbstractDataEntryType(
@@ -64,7 +68,13 @@ public class AcronymEntry implements DataEntry {
 				put(EntryKeys.DESCR, false);
 				put(ObjectLinks.OBJ_LINKS, false);
 			}}
-	);
+	)
+			.addProperty("short", AcronymKeys.ACR_SHORT)
+			.addProperty("shortOrig", AcronymKeys.LOCAL_ACRONYM_SHORT_ORIG)
+			.addProperty("long", AcronymKeys.ACR_LONG)
+			.addProperty("links", ObjectLinks.OBJ_LINKS)
+			.addProperty("description", EntryKeys.DESCR)
+	;
 
 	/** The local entry map. */
 	private Map<EntryKey, Object> entryMap;
@@ -91,10 +101,15 @@ public class AcronymEntry implements DataEntry {
 		return null;
 	}
 
+	@Override
+	public Object getDuplicateSignature(){
+		return Arrays.asList(this.getShort(), this.getLong());
+	}
+
 	@Override
 	public void loadEntry(String keyStart, Map<String, Object> data, CoreSettings cs) throws URISyntaxException {
 		this.entryMap = DataUtilities.loadEntry(this.getSchema(), keyStart, data, cs);
-		this.entryMap.put(AcronymKeys.LOCAL_ACRONYM_SHORT_ORIG, DataUtilities.loadDataString(AcronymKeys.ACR_SHORT, data));
+		this.entryMap.put(AcronymKeys.LOCAL_ACRONYM_SHORT_ORIG, DataUtilities.loadDataString(AcronymKeys.ACR_SHORT, data, cs));
 
 		if(this.entryMap.get(CommonKeys.KEY)!=null){
 			this.entryMap.put(CommonKeys.KEY, keyStart + this.entryMap.get(CommonKeys.KEY));
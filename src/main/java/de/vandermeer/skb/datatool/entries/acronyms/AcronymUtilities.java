@@ -28,17 +28,21 @@ public abstract class AcronymUtilities {
 
 	/**
 	 * Sets the longest acronym (plain text) in a set of acronyms.
+	 * A mark from an earlier call (for instance before an incremental reload) is removed.
 	 * @param ds data set of acronyms
 	 */
 	public final static void setLongestAcr(DataSet<AcronymEntry> ds){
 		String maxShort = "";
 		String key = null;
 		for(AcronymEntry entry : ds.getEntries()){
+			entry.longestAcr = null;
 			if(entry.getShortOrig().length()>maxShort.length()){
 				maxShort = entry.getShort();
 				key = entry.getKey();
 			}
 		}
-		ds.getMap().get(key).setLongestAcr();
+		if(key!=null){
+			ds.getMap().get(key).setLongestAcr();
+		}
 	}
 }
@@ -49,6 +49,9 @@ import de.vandermeer.skb.datatool.entries.links.object.ObjectLinks;
  */
 public class AffiliationEntry implements DataEntry {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	/** Affiliation entry type. */
 	public static DataEntryType ENTRY_TYPE =
 			new AbstractDataEntryType(
@@ -74,13 +77,22 @@ public class AffiliationEntry implements DataEntry {
 				put(ObjectGeo.OBJ_GEO, false);
 				put(ObjectLinks.OBJ_LINKS, false);
 			}}
-	);
+	)
+			.addProperty("name", AffiliationKeys.AFF_LONG)
+			.addProperty("shortName", AffiliationKeys.AFF_SHORT)
+			.addProperty("acronymLink", EntryKeys.LOCAL_ACRONYM_LINK)
+			.addProperty("acronym", EntryKeys.ACRONYM)
+			.addProperty("typeLink", AffiliationKeys.LOCAL_AFF_TYPE_LINK)
+			.addProperty("geo", ObjectGeo.OBJ_GEO)
+			.addProperty("address", AffiliationKeys.AFF_ADDR)
+			.addProperty("links", ObjectLinks.OBJ_LINKS)
+	;
 
 	/** The local entry map. */
 	private Map<EntryKey, Object> entryMap;
 
 	/** Map with linkeable data entries from other sets. */
-	private LoadedTypeMap loadedTypes;
+	private transient LoadedTypeMap loadedTypes;
 
 	/**
 	 * Creates a new affiliation entry with loaded types.
@@ -119,7 +131,7 @@ public class AffiliationEntry implements DataEntry {
 	 * @return expanded acronym type
 	 */
 	public AcronymEntry getAcronym(){
-		return (AcronymEntry)this.entryMap.get(EntryKeys.ACRONYM);
+		return (AcronymEntry)DataUtilities.getLinked(this.entryMap, EntryKeys.ACRONYM);
 	}
 
 	/**
@@ -183,8 +195,8 @@ public class AffiliationEntry implements DataEntry {
 	public void loadEntry(String keyStart, Map<String, Object> data, CoreSettings cs) throws URISyntaxException {
 		this.entryMap = DataUtilities.loadEntry(this.getSchema(), keyStart, data, this.loadedTypes, cs);
 
-		this.entryMap.put(EntryKeys.LOCAL_ACRONYM_LINK, DataUtilities.loadDataString(EntryKeys.ACRONYM, data));
-		this.entryMap.put(AffiliationKeys.LOCAL_AFF_TYPE_LINK, DataUtilities.loadDataString(AffiliationKeys.AFF_TYPE, data));
+		this.entryMap.put(EntryKeys.LOCAL_ACRONYM_LINK, DataUtilities.loadDataString(EntryKeys.ACRONYM, data, cs));
+		this.entryMap.put(AffiliationKeys.LOCAL_AFF_TYPE_LINK, DataUtilities.loadDataString(AffiliationKeys.AFF_TYPE, data, cs));
 
 		StrBuilder msg = new StrBuilder(50);
 		if(this.getName()==null){
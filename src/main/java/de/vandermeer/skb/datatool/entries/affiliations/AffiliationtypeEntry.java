@@ -41,6 +41,9 @@ import de.vandermeer.skb.datatool.commons.target.StandardDataTargetDefinitions;
  */
 public class AffiliationtypeEntry implements DataEntry {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	/** Affiliation types entry type. */
 	public static DataEntryType ENTRY_TYPE =
 			new AbstractDataEntryType(
@@ -55,7 +58,10 @@ public class AffiliationtypeEntry implements DataEntry {
 				put(AffiliationKeys.AFF_LONG, false);
 				put(AffiliationKeys.AFF_SHORT, false);
 			}}
-	);
+	)
+			.addProperty("long", AffiliationKeys.AFF_LONG)
+			.addProperty("short", AffiliationKeys.AFF_SHORT)
+	;
 
 	/** The local entry map. */
 	private Map<EntryKey, Object> entryMap;
@@ -38,6 +38,9 @@ import de.vandermeer.skb.datatool.commons.LoadedTypeMap;
  */
 public class ObjectAffiliations implements EntryObject {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	public static EntryKey OBJ_AFF_LIST = new AbstractEntryKey("list", "a list of SKB links to affiliations", String.class, false, "skb://affiliations");
 
 	/** Affiliation object object schema. */
@@ -52,6 +52,9 @@ import de.vandermeer.skb.datatool.entries.links.object.ObjectLinks;
  */
 public class ConferenceEntry implements DataEntry {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	/** Conference entry type. */
 	public static DataEntryType ENTRY_TYPE =
 			new AbstractDataEntryType(
@@ -83,7 +86,7 @@ public class ConferenceEntry implements DataEntry {
 	private Map<EntryKey, Object> entryMap;
 
 	/** Map with linkeable data entries from other sets. */
-	private LoadedTypeMap loadedTypes;
+	private transient LoadedTypeMap loadedTypes;
 
 	/**
 	 * Creates a new affiliation entry with loaded types.
@@ -122,7 +125,7 @@ public class ConferenceEntry implements DataEntry {
 	 * @return expanded acronym type
 	 */
 	public AcronymEntry getAcronym(){
-		return (AcronymEntry)this.entryMap.get(EntryKeys.ACRONYM);
+		return (AcronymEntry)DataUtilities.getLinked(this.entryMap, EntryKeys.ACRONYM);
 	}
 //
 //	/**
@@ -186,7 +189,7 @@ public class ConferenceEntry implements DataEntry {
 	public void loadEntry(String keyStart, Map<String, Object> data, CoreSettings cs) throws URISyntaxException {
 		this.entryMap = DataUtilities.loadEntry(this.getSchema(), keyStart, data, this.loadedTypes, cs);
 
-		this.entryMap.put(EntryKeys.LOCAL_ACRONYM_LINK, DataUtilities.loadDataString(EntryKeys.ACRONYM, data));
+		this.entryMap.put(EntryKeys.LOCAL_ACRONYM_LINK, DataUtilities.loadDataString(EntryKeys.ACRONYM, data, cs));
 //		this.entryMap.put(AffiliationKeys.LOCAL_AFF_TYPE_LINK, DataUtilities.loadDataString(AffiliationKeys.AFF_TYPE, data));
 
 		StrBuilder msg = new StrBuilder(50);
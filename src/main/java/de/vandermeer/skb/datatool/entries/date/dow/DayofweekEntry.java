@@ -44,6 +44,9 @@ import de.vandermeer.skb.datatool.entries.acronyms.AcronymEntry;
  */
 public class DayofweekEntry implements DataEntry {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	/** Day-of-week entry type. */
 	public static DataEntryType ENTRY_TYPE =
 			new AbstractDataEntryType(
@@ -67,7 +70,7 @@ public class DayofweekEntry implements DataEntry {
 	private Map<EntryKey, Object> entryMap;
 
 	/** Map with linkeable data entries from other sets. */
-	private LoadedTypeMap loadedTypes;
+	private transient LoadedTypeMap loadedTypes;
 
 	@Override
 	public DataEntrySchema getSchema(){
@@ -91,7 +94,7 @@ public class DayofweekEntry implements DataEntry {
 	public void loadEntry(String keyStart, Map<String, Object> data, CoreSettings cs) throws URISyntaxException {
 		this.entryMap = DataUtilities.loadEntry(this.getSchema(), keyStart, data, this.loadedTypes, cs);
 
-		this.entryMap.put(EntryKeys.LOCAL_ACRONYM_LINK, DataUtilities.loadDataString(EntryKeys.ACRONYM, data));
+		this.entryMap.put(EntryKeys.LOCAL_ACRONYM_LINK, DataUtilities.loadDataString(EntryKeys.ACRONYM, data, cs));
 		this.entryMap.put(CommonKeys.KEY, this.getAcronym().getShort());
 	}
 
@@ -132,7 +135,7 @@ public class DayofweekEntry implements DataEntry {
 	 * @return expanded acronym
 	 */
 	public AcronymEntry getAcronym(){
-		return (AcronymEntry)this.entryMap.get(EntryKeys.ACRONYM);
+		return (AcronymEntry)DataUtilities.getLinked(this.entryMap, EntryKeys.ACRONYM);
 	}
 
 	@Override
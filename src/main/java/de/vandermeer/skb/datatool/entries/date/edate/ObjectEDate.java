@@ -28,6 +28,7 @@ import de.vandermeer.skb.datatool.commons.DataEntrySchema;
 import de.vandermeer.skb.datatool.commons.DataUtilities;
 import de.vandermeer.skb.datatool.commons.EntryKey;
 import de.vandermeer.skb.datatool.commons.EntryObject;
+import de.vandermeer.skb.datatool.commons.EntryObjectRegistry;
 import de.vandermeer.skb.datatool.commons.LoadedTypeMap;
 import de.vandermeer.skb.datatool.entries.date.month.MonthEntry;
 
@@ -40,8 +41,11 @@ import de.vandermeer.skb.datatool.entries.date.month.MonthEntry;
  */
 public class ObjectEDate implements EntryObject {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	/** Key pointing to an edate object. */
-	public static EntryKey OBJ_EDATE = new AbstractEntryKey("edate", "combined date information, e.g. start/end day/month", ObjectEDate.class, false, null);
+	public static EntryKey OBJ_EDATE = EntryObjectRegistry.register(new AbstractEntryKey("edate", "combined date information, e.g. start/end day/month", ObjectEDate.class, false, null), ObjectEDate::new);
 
 	/** EDate object schema. */
 	public static DataEntrySchema SCHEMA = new AbstractDataEntrySchema(
@@ -67,9 +71,9 @@ public class ObjectEDate implements EntryObject {
 
 		this.entryMap = DataUtilities.loadEntry(this.getSchema(), keyStart, (Map<?, ?>)data, loadedTypes, cs);
 
-		this.entryMap.put(ObjectEDateKeys.LOCAL_OBJ_EDATE_MONTH_LINK, DataUtilities.loadDataString(ObjectEDateKeys.OBJ_EDATE_MONTH_LINK, (Map<?, ?>)data));
-		this.entryMap.put(ObjectEDateKeys.LOCAL_OBJ_EDATE_MONTH_START_LINK, DataUtilities.loadDataString(ObjectEDateKeys.OBJ_EDATE_MONTH_START_LINK, (Map<?, ?>)data));
-		this.entryMap.put(ObjectEDateKeys.LOCAL_OBJ_EDATE_MONTH_END_LINK, DataUtilities.loadDataString(ObjectEDateKeys.OBJ_EDATE_MONTH_END_LINK, (Map<?, ?>)data));
+		this.entryMap.put(ObjectEDateKeys.LOCAL_OBJ_EDATE_MONTH_LINK, DataUtilities.loadDataString(ObjectEDateKeys.OBJ_EDATE_MONTH_LINK, (Map<?, ?>)data, cs));
+		this.entryMap.put(ObjectEDateKeys.LOCAL_OBJ_EDATE_MONTH_START_LINK, DataUtilities.loadDataString(ObjectEDateKeys.OBJ_EDATE_MONTH_START_LINK, (Map<?, ?>)data, cs));
+		this.entryMap.put(ObjectEDateKeys.LOCAL_OBJ_EDATE_MONTH_END_LINK, DataUtilities.loadDataString(ObjectEDateKeys.OBJ_EDATE_MONTH_END_LINK, (Map<?, ?>)data, cs));
 
 		StrBuilder msg = new StrBuilder(50);
 
@@ -120,7 +124,7 @@ public class ObjectEDate implements EntryObject {
 	 * @return month entry
 	 */
 	public MonthEntry getMonth(){
-		return (MonthEntry)this.entryMap.get(ObjectEDateKeys.OBJ_EDATE_MONTH_LINK);
+		return (MonthEntry)DataUtilities.getLinked(this.entryMap, ObjectEDateKeys.OBJ_EDATE_MONTH_LINK);
 	}
 
 	/**
@@ -128,7 +132,7 @@ public class ObjectEDate implements EntryObject {
 	 * @return month-start entry
 	 */
 	public MonthEntry getMonthStart(){
-		return (MonthEntry)this.entryMap.get(ObjectEDateKeys.OBJ_EDATE_MONTH_START_LINK);
+		return (MonthEntry)DataUtilities.getLinked(this.entryMap, ObjectEDateKeys.OBJ_EDATE_MONTH_START_LINK);
 	}
 
 	/**
@@ -136,7 +140,7 @@ public class ObjectEDate implements EntryObject {
 	 * @return month-end entry
 	 */
 	public MonthEntry getMonthEnd(){
-		return (MonthEntry)this.entryMap.get(ObjectEDateKeys.OBJ_EDATE_MONTH_END_LINK);
+		return (MonthEntry)DataUtilities.getLinked(this.entryMap, ObjectEDateKeys.OBJ_EDATE_MONTH_END_LINK);
 	}
 
 	@Override
@@ -44,6 +44,9 @@ import de.vandermeer.skb.datatool.entries.acronyms.AcronymEntry;
  */
 public class MonthEntry implements DataEntry {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	/** Month entry type. */
 	public static DataEntryType ENTRY_TYPE =
 			new AbstractDataEntryType(
@@ -68,7 +71,7 @@ public class MonthEntry implements DataEntry {
 	private Map<EntryKey, Object> entryMap;
 
 	/** Map with linkeable data entries from other sets. */
-	private LoadedTypeMap loadedTypes;
+	private transient LoadedTypeMap loadedTypes;
 
 	@Override
 	public DataEntrySchema getSchema(){
@@ -92,7 +95,7 @@ public class MonthEntry implements DataEntry {
 	public void loadEntry(String keyStart, Map<String, Object> data, CoreSettings cs) throws URISyntaxException {
 		this.entryMap = DataUtilities.loadEntry(this.getSchema(), keyStart, data, this.loadedTypes, cs);
 
-		this.entryMap.put(EntryKeys.LOCAL_ACRONYM_LINK, DataUtilities.loadDataString(EntryKeys.ACRONYM, data));
+		this.entryMap.put(EntryKeys.LOCAL_ACRONYM_LINK, DataUtilities.loadDataString(EntryKeys.ACRONYM, data, cs));
 		this.entryMap.put(CommonKeys.KEY, this.getAcronym().getShort());
 	}
 
@@ -141,7 +144,7 @@ public class MonthEntry implements DataEntry {
 	 * @return expanded acronym
 	 */
 	public AcronymEntry getAcronym(){
-		return (AcronymEntry)this.entryMap.get(EntryKeys.ACRONYM);
+		return (AcronymEntry)DataUtilities.getLinked(this.entryMap, EntryKeys.ACRONYM);
 	}
 
 	@Override
@@ -44,6 +44,9 @@ import de.vandermeer.skb.datatool.entries.EntryKeys;
  */
 public class EncodingEntry implements DataEntry {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	/** Encoding entry type. */
 	public static DataEntryType ENTRY_TYPE =
 			new AbstractDataEntryType(
@@ -71,7 +74,17 @@ public class EncodingEntry implements DataEntry {
 				put(EntryKeys.ASCII_DOC, false);
 				put(EntryKeys.DESCR, false);
 			}}
-	);
+	)
+			.addProperty("text", EncodingKeys.ENC_CHAR)
+			.addProperty("htmlCode", EncodingKeys.LOCAL_HTML_CODE)
+			.addProperty("htmlEntity", EntryKeys.HTML_ENTITY)
+			.addProperty("ucNumber", EncodingKeys.LOCAL_ENCODING_UC_NUMBER)
+			.addProperty("ucBlock", EncodingKeys.UNICODE_BLOCK)
+			.addProperty("ucSet", EncodingKeys.UNICODE_SET)
+			.addProperty("latex", EntryKeys.LATEX)
+			.addProperty("ad", EntryKeys.ASCII_DOC)
+			.addProperty("description", EntryKeys.DESCR)
+	;
 
 	/** The local entry map. */
 	private Map<EntryKey, Object> entryMap;
@@ -137,10 +150,10 @@ public class EncodingEntry implements DataEntry {
 
 	/**
 	 * Returns the decimal number of the encoding.
-	 * @return decimal number of the encoding
+	 * @return decimal number of the encoding, -1 if not set
 	 */
 	public int getDec(){
-		return (Integer)this.entryMap.get(EncodingKeys.ENC_DEC);
+		return DataUtilities.getInt(this.entryMap, EncodingKeys.ENC_DEC, -1);
 	}
 
 	/**
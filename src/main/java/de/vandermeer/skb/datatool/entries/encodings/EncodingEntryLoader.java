@@ -35,6 +35,9 @@ import de.vandermeer.skb.datatool.commons.LoadedTypeMap;
  */
 public class EncodingEntryLoader extends AbstractDataSetLoader<EncodingEntry> {
 
+	/** Index of the loaded encodings by code point, null if not built yet. */
+	private volatile EncodingIndex index;
+
 	@Override
 	public void load(Map<DataEntryType, DataSetLoader<?>> supportedTypes, LoadedTypeMap loadedType) {
 		super.load(supportedTypes, loadedType);
@@ -44,9 +47,31 @@ public class EncodingEntryLoader extends AbstractDataSetLoader<EncodingEntry> {
 			return;
 		}
 		loadedType.put(this.getDataEntryType(), ds);
+		this.index = new EncodingIndex(ds.getMap().values());
 		this.writeStats();
 	}
 
+	@Override
+	public void setLoadedTypes(LoadedTypeMap loadedTypes){
+		super.setLoadedTypes(loadedTypes);
+		this.index = null;
+	}
+
+	/**
+	 * Returns an index of the loaded encodings by code point, for fast lookups and coverage tests.
+	 * The index is built when encodings are loaded, or on first use for encodings restored from a snapshot.
+	 * @return code point index, null if no encodings are loaded
+	 */
+	@SuppressWarnings("unchecked")
+	public EncodingIndex getIndex(){
+		EncodingIndex ret = this.index;
+		if(ret==null && this.getLoadedTypes()!=null && this.getLoadedTypes().get(this.getDataEntryType())!=null){
+			ret = new EncodingIndex(((DataSet<EncodingEntry>)this.getLoadedTypes().get(this.getDataEntryType())).getMap().values());
+			this.index = ret;
+		}
+		return ret;
+	}
+
 	@Override
 	public DataEntryType getDataEntryType() {
 		return EncodingEntry.ENTRY_TYPE;
@@ -0,0 +1,197 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatool.entries.encodings;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * An index of encoding entries by code point, for lookups without formatting a code point into a string key.
+ * Code points of the basic multilingual plane are kept in an array indexed by code point, all other code points in an open-addressing hash table of primitive integers.
+ * The index is immutable, build a new one when the encodings change.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class EncodingIndex {
+
+	/** Marks an empty slot in the hash table, no valid code point. */
+	private final static int EMPTY = -1;
+
+	/** Entries of the basic multilingual plane, indexed by code point (only up to the highest indexed code point). */
+	private final EncodingEntry[] bmp;
+
+	/** Code points of the hash table, {@link #EMPTY} for empty slots. */
+	private final int[] keys;
+
+	/** Entries of the hash table, same slot as their code point. */
+	private final EncodingEntry[] values;
+
+	/** Mask for hash table slots, table size minus one. */
+	private final int mask;
+
+	/** Shift for the multiplicative hash, 32 minus the number of bits of a slot. */
+	private final int shift;
+
+	/** Number of indexed entries. */
+	private final int size;
+
+	/**
+	 * Returns a new index for encoding entries.
+	 * Entries with a decimal value that is not a valid code point are ignored.
+	 * @param entries the entries to index
+	 * @throws NullPointerException if entries is null
+	 */
+	public EncodingIndex(Collection<EncodingEntry> entries){
+		Validate.notNull(entries);
+
+		int maxBmp = -1;
+		int supplementary = 0;
+		for(EncodingEntry entry : entries){
+			int cp = entry.getDec();
+			if(cp>=0 && cp<=Character.MAX_VALUE){
+				maxBmp = Math.max(maxBmp, cp);
+			}
+			else if(Character.isValidCodePoint(cp)){
+				supplementary++;
+			}
+		}
+
+		int capacity = Integer.highestOneBit(Math.max(supplementary * 2, 2) - 1) << 1;
+		this.bmp = new EncodingEntry[maxBmp + 1];
+		this.keys = new int[capacity];
+		this.values = new EncodingEntry[capacity];
+		this.mask = capacity - 1;
+		this.shift = 32 - Integer.numberOfTrailingZeros(capacity);
+		Arrays.fill(this.keys, EMPTY);
+
+		int size = 0;
+		for(EncodingEntry entry : entries){
+			int cp = entry.getDec();
+			if(cp>=0 && cp<=Character.MAX_VALUE){
+				if(this.bmp[cp]==null){
+					size++;
+				}
+				this.bmp[cp] = entry;
+			}
+			else if(Character.isValidCodePoint(cp)){
+				int slot = this.slot(cp);
+				if(this.keys[slot]==EMPTY){
+					size++;
+				}
+				this.keys[slot] = cp;
+				this.values[slot] = entry;
+			}
+		}
+		this.size = size;
+	}
+
+	/**
+	 * Returns the hash table slot of a code point, the slot holding it or the empty slot it would go to.
+	 * @param codePoint the code point
+	 * @return slot in the hash table
+	 */
+	private int slot(int codePoint){
+		int slot = (codePoint * 0x9E3779B9) >>> this.shift;
+		while(this.keys[slot]!=EMPTY && this.keys[slot]!=codePoint){
+			slot = (slot + 1) & this.mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns the encoding entry for a code point.
+	 * @param codePoint the code point
+	 * @return encoding entry, null if the code point is not indexed
+	 */
+	public EncodingEntry get(int codePoint){
+		if(codePoint>=0 && codePoint<this.bmp.length){
+			return this.bmp[codePoint];
+		}
+		if(codePoint<=Character.MAX_VALUE || !Character.isValidCodePoint(codePoint)){
+			return null;
+		}
+		return this.values[this.slot(codePoint)];
+	}
+
+	/**
+	 * Tests if a code point is indexed.
+	 * @param codePoint the code point
+	 * @return true if an encoding entry exists for the code point, false otherwise
+	 */
+	public boolean contains(int codePoint){
+		return this.get(codePoint)!=null;
+	}
+
+	/**
+	 * Tests if all code points of a text are indexed.
+	 * @param text the text to test
+	 * @return true if an encoding entry exists for every code point of the text, false otherwise
+	 * @throws NullPointerException if text is null
+	 */
+	public boolean covers(CharSequence text){
+		Validate.notNull(text);
+		for(int i=0; i<text.length(); ){
+			int cp = Character.codePointAt(text, i);
+			if(!this.contains(cp)){
+				return false;
+			}
+			i += Character.charCount(cp);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns all code points of a text that are not indexed.
+	 * @param text the text to test
+	 * @return missing code points in order of first occurrence without duplicates, empty if the text is covered
+	 * @throws NullPointerException if text is null
+	 */
+	public int[] getMissing(CharSequence text){
+		Validate.notNull(text);
+		return text.codePoints().filter(cp -> !this.contains(cp)).distinct().toArray();
+	}
+
+	/**
+	 * Returns all code points of a range that are not indexed.
+	 * @param start first code point of the range
+	 * @param end last code point of the range (inclusive)
+	 * @return missing code points in ascending order, empty if the range is covered
+	 * @throws IllegalArgumentException if the range is not valid
+	 */
+	public int[] getMissing(int start, int end){
+		Validate.isTrue(Character.isValidCodePoint(start) && Character.isValidCodePoint(end) && start<=end, "invalid code point range <%d> to <%d>", start, end);
+		int[] ret = new int[end - start + 1];
+		int count = 0;
+		for(int cp=start; cp<=end; cp++){
+			if(!this.contains(cp)){
+				ret[count++] = cp;
+			}
+		}
+		return Arrays.copyOf(ret, count);
+	}
+
+	/**
+	 * Returns the number of indexed entries.
+	 * @return number of entries
+	 */
+	public int size(){
+		return this.size;
+	}
+}
@@ -42,6 +42,9 @@ import de.vandermeer.skb.datatool.entries.EntryKeys;
  */
 public class Htmlentry implements DataEntry {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	/** HTML entity entry type. */
 	public static DataEntryType ENTRY_TYPE = new AbstractDataEntryType(
 			"html-entities", "hmap"
@@ -55,7 +58,13 @@ public class Htmlentry implements DataEntry {
 				put(EntryKeys.ASCII_DOC, false);
 				put(EntryKeys.DESCR, false);
 			}}
-	);
+	)
+			.addProperty("htmlEntity", EntryKeys.HTML_ENTITY)
+			.addProperty("htmlEntityReplacement", HtmlentryKeys.LOCAL_HTML_REPLACEMENT)
+			.addProperty("latex", EntryKeys.LATEX)
+			.addProperty("ad", EntryKeys.ASCII_DOC)
+			.addProperty("description", EntryKeys.DESCR)
+	;
 
 	/** The local entry map. */
 	private Map<EntryKey, Object> entryMap;
@@ -45,6 +45,9 @@ import de.vandermeer.skb.datatool.entries.links.object.ObjectLinks;
  */
 public class CityEntry implements DataEntry {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	/** City entry type. */
 	public static DataEntryType ENTRY_TYPE =
 			new AbstractDataEntryType(
@@ -76,7 +79,7 @@ public class CityEntry implements DataEntry {
 	private Map<EntryKey, Object> entryMap;
 
 	/** Map with linkeable data entries from other sets. */
-	private LoadedTypeMap loadedTypes;
+	private transient LoadedTypeMap loadedTypes;
 
 	/**
 	 * Creates a new affiliation entry with loaded types.
@@ -104,7 +107,7 @@ public class CityEntry implements DataEntry {
 	 * @return ccity's country
 	 */
 	public CountryEntry getCountry(){
-		return (CountryEntry)this.entryMap.get(GeoKeys.GEO_COUNTRY);
+		return (CountryEntry)DataUtilities.getLinked(this.entryMap, GeoKeys.GEO_COUNTRY);
 	}
 
 	/**
@@ -180,7 +183,7 @@ public class CityEntry implements DataEntry {
 	@Override
 	public void loadEntry(String keyStart, Map<String, Object> data, CoreSettings cs) throws URISyntaxException {
 		this.entryMap = DataUtilities.loadEntry(this.getSchema(), keyStart, data, this.loadedTypes, cs);
-		this.entryMap.put(GeoKeys.LOCAL_GEO_COUNTRY_LINK, DataUtilities.loadDataString(GeoKeys.GEO_COUNTRY, data));
+		this.entryMap.put(GeoKeys.LOCAL_GEO_COUNTRY_LINK, DataUtilities.loadDataString(GeoKeys.GEO_COUNTRY, data, cs));
 
 		if(this.getKey()!=null){
 			this.entryMap.put(CommonKeys.KEY, keyStart + this.getKey());
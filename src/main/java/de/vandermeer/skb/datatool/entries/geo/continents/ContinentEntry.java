@@ -42,6 +42,9 @@ import de.vandermeer.skb.datatool.entries.geo.GeoKeys;
  */
 public class ContinentEntry implements DataEntry {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	/** Continent entry type. */
 	public static DataEntryType ENTRY_TYPE =
 			new AbstractDataEntryType(
@@ -44,6 +44,9 @@ import de.vandermeer.skb.datatool.entries.geo.continents.ContinentEntry;
  */
 public class CountryEntry implements DataEntry {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	/** Country entry type. */
 	public static DataEntryType ENTRY_TYPE =
 			new AbstractDataEntryType(
@@ -72,7 +75,7 @@ public class CountryEntry implements DataEntry {
 	private Map<EntryKey, Object> entryMap;
 
 	/** Map with linkeable data entries from other sets. */
-	private LoadedTypeMap loadedTypes;
+	private transient LoadedTypeMap loadedTypes;
 
 	/**
 	 * Creates a new affiliation entry with loaded types.
@@ -95,7 +98,7 @@ public class CountryEntry implements DataEntry {
 	 * @return country continent
 	 */
 	public ContinentEntry getContinent(){
-		return (ContinentEntry)this.entryMap.get(GeoKeys.GEO_CONTINENT);
+		return (ContinentEntry)DataUtilities.getLinked(this.entryMap, GeoKeys.GEO_CONTINENT);
 	}
 
 	/**
@@ -152,7 +155,7 @@ public class CountryEntry implements DataEntry {
 	@Override
 	public void loadEntry(String keyStart, Map<String, Object> data, CoreSettings cs) throws URISyntaxException {
 		this.entryMap = DataUtilities.loadEntry(this.getSchema(), keyStart, data, this.loadedTypes, cs);
-		this.entryMap.put(GeoKeys.LOCAL_GEO_CONTINENT_LINK, DataUtilities.loadDataString(GeoKeys.GEO_CONTINENT, data));
+		this.entryMap.put(GeoKeys.LOCAL_GEO_CONTINENT_LINK, DataUtilities.loadDataString(GeoKeys.GEO_CONTINENT, data, cs));
 		this.entryMap.put(CommonKeys.KEY, this.getTld());
 	}
 
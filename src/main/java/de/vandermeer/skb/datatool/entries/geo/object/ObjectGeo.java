@@ -28,6 +28,7 @@ import de.vandermeer.skb.datatool.commons.DataEntrySchema;
 import de.vandermeer.skb.datatool.commons.DataUtilities;
 import de.vandermeer.skb.datatool.commons.EntryKey;
 import de.vandermeer.skb.datatool.commons.EntryObject;
+import de.vandermeer.skb.datatool.commons.EntryObjectRegistry;
 import de.vandermeer.skb.datatool.commons.LoadedTypeMap;
 import de.vandermeer.skb.datatool.entries.geo.GeoKeys;
 import de.vandermeer.skb.datatool.entries.geo.cities.CityEntry;
@@ -42,8 +43,11 @@ import de.vandermeer.skb.datatool.entries.geo.countries.CountryEntry;
  */
 public class ObjectGeo implements EntryObject {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	/** Key pointing to a geo object. */
-	public static EntryKey OBJ_GEO = new AbstractEntryKey("geo", "geographic information, e.g. city or country", ObjectGeo.class, false, null);
+	public static EntryKey OBJ_GEO = EntryObjectRegistry.register(new AbstractEntryKey("geo", "geographic information, e.g. city or country", ObjectGeo.class, false, null), ObjectGeo::new);
 
 	/** Geo object schema. */
 	public static DataEntrySchema SCHEMA = new AbstractDataEntrySchema(
@@ -53,7 +57,14 @@ public class ObjectGeo implements EntryObject {
 				put(ObjectGeoKeys.OBJ_GEO_COUNTRY_NAME, false);
 				put(ObjectGeoKeys.OBJ_GEO_COUNTRY_LINK, false);
 			}}
-	);
+	)
+			.addProperty("cityName", ObjectGeoKeys.OBJ_GEO_CITY_NAME)
+			.addProperty("city", ObjectGeoKeys.OBJ_GEO_CITY_LINK)
+			.addProperty("countryName", ObjectGeoKeys.OBJ_GEO_COUNTRY_NAME)
+			.addProperty("country", ObjectGeoKeys.OBJ_GEO_COUNTRY_LINK)
+			.addProperty("cityLink", GeoKeys.LOCAL_GEO_CITY_LINK)
+			.addProperty("countryLink", GeoKeys.LOCAL_GEO_COUNTRY_LINK)
+	;
 
 	/** The local entry map. */
 	private Map<EntryKey, Object> entryMap;
@@ -66,8 +77,8 @@ public class ObjectGeo implements EntryObject {
 
 		this.entryMap = DataUtilities.loadEntry(this.getSchema(), keyStart, (Map<?, ?>)data, loadedTypes, cs);
 
-		this.entryMap.put(GeoKeys.LOCAL_GEO_CITY_LINK, DataUtilities.loadDataString(ObjectGeoKeys.OBJ_GEO_CITY_LINK, (Map<?, ?>)data));
-		this.entryMap.put(GeoKeys.LOCAL_GEO_COUNTRY_LINK, DataUtilities.loadDataString(ObjectGeoKeys.OBJ_GEO_COUNTRY_LINK, (Map<?, ?>)data));
+		this.entryMap.put(GeoKeys.LOCAL_GEO_CITY_LINK, DataUtilities.loadDataString(ObjectGeoKeys.OBJ_GEO_CITY_LINK, (Map<?, ?>)data, cs));
+		this.entryMap.put(GeoKeys.LOCAL_GEO_COUNTRY_LINK, DataUtilities.loadDataString(ObjectGeoKeys.OBJ_GEO_COUNTRY_LINK, (Map<?, ?>)data, cs));
 
 		StrBuilder msg = new StrBuilder(50);
 
@@ -132,7 +143,7 @@ public class ObjectGeo implements EntryObject {
 	 * @return city entry
 	 */
 	public CityEntry getCity(){
-		return (CityEntry)this.entryMap.get(ObjectGeoKeys.OBJ_GEO_CITY_LINK);
+		return (CityEntry)DataUtilities.getLinked(this.entryMap, ObjectGeoKeys.OBJ_GEO_CITY_LINK);
 	}
 
 	/**
@@ -148,7 +159,7 @@ public class ObjectGeo implements EntryObject {
 	 * @return country entry
 	 */
 	public CountryEntry getCountry(){
-		return (CountryEntry)this.entryMap.get(ObjectGeoKeys.OBJ_GEO_COUNTRY_LINK);
+		return (CountryEntry)DataUtilities.getLinked(this.entryMap, ObjectGeoKeys.OBJ_GEO_COUNTRY_LINK);
 	}
 
 	/**
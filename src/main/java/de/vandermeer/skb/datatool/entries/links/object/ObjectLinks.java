@@ -26,6 +26,7 @@ import de.vandermeer.skb.datatool.commons.DataEntrySchema;
 import de.vandermeer.skb.datatool.commons.DataUtilities;
 import de.vandermeer.skb.datatool.commons.EntryKey;
 import de.vandermeer.skb.datatool.commons.EntryObject;
+import de.vandermeer.skb.datatool.commons.EntryObjectRegistry;
 import de.vandermeer.skb.datatool.commons.LoadedTypeMap;
 
 /**
@@ -37,8 +38,11 @@ import de.vandermeer.skb.datatool.commons.LoadedTypeMap;
  */
 public class ObjectLinks implements EntryObject {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	/** Key pointing to a links object. */
-	public static EntryKey OBJ_LINKS = new AbstractEntryKey("links", "a links object with URLs and URNs", ObjectLinks.class, false, null);
+	public static EntryKey OBJ_LINKS = EntryObjectRegistry.register(new AbstractEntryKey("links", "a links object with URLs and URNs", ObjectLinks.class, false, null), ObjectLinks::new);
 
 	/** Links object schema. */
 	public static DataEntrySchema SCHEMA = new AbstractDataEntrySchema(
@@ -46,7 +50,10 @@ public class ObjectLinks implements EntryObject {
 				put(ObjectLinksKeys.OBJ_LINKS_U, false);
 				put(ObjectLinksKeys.OBJ_LINKS_W, false);
 			}}
-	);
+	)
+			.addProperty("url", ObjectLinksKeys.OBJ_LINKS_U)
+			.addProperty("wikipedia", ObjectLinksKeys.OBJ_LINKS_W)
+	;
 
 	/** The local entry map. */
 	private Map<EntryKey, Object> entryMap;
@@ -41,6 +41,9 @@ import de.vandermeer.skb.datatool.commons.target.StandardDataTargetDefinitions;
  */
 public class PeopleEntry implements DataEntry {
 
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
 	/** People entry type. */
 	public static DataEntryType ENTRY_TYPE =
 			new AbstractDataEntryType(
@@ -57,7 +60,11 @@ public class PeopleEntry implements DataEntry {
 				put(PeopleKeys.PEOPLE_MIDDLE, false);
 				put(PeopleKeys.PEOPLE_LAST, true);
 			}}
-	);
+	)
+			.addProperty("firstName", PeopleKeys.PEOPLE_FIRST)
+			.addProperty("middleName", PeopleKeys.PEOPLE_MIDDLE)
+			.addProperty("lastName", PeopleKeys.PEOPLE_LAST)
+	;
 
 	/** The local entry map. */
 	private Map<EntryKey, Object> entryMap;
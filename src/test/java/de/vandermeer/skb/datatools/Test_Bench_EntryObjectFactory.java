@@ -0,0 +1,108 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.junit.Test;
+
+import de.vandermeer.skb.datatool.commons.AbstractEntryKey;
+import de.vandermeer.skb.datatool.commons.EntryKey;
+import de.vandermeer.skb.datatool.commons.EntryObject;
+import de.vandermeer.skb.datatool.commons.EntryObjectRegistry;
+import de.vandermeer.skb.datatool.entries.date.edate.ObjectEDate;
+import de.vandermeer.skb.datatool.entries.geo.object.ObjectGeo;
+import de.vandermeer.skb.datatool.entries.links.object.ObjectLinks;
+
+/**
+ * Microbenchmark for creating entry objects, with reflection and with the factory registry.
+ * The test always checks that both create the same objects, the benchmark runs with "-DBench=true" and prints results to standard out.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_Bench_EntryObjectFactory {
+
+	/** Number of objects created per round. */
+	static final int OBJECTS = 3_000_000;
+
+	/** Keys of all entry objects. */
+	static final EntryKey[] KEYS = new EntryKey[]{ObjectLinks.OBJ_LINKS, ObjectGeo.OBJ_GEO, ObjectEDate.OBJ_EDATE};
+
+	@Test
+	public void test_SameObjects() throws ReflectiveOperationException {
+		for(EntryKey key : KEYS){
+			assertNotNull(key.getKey(), EntryObjectRegistry.get(key));
+			EntryObject registry = this.createWithRegistry(key);
+			assertEquals(key.getKey(), this.createWithReflection(key).getClass(), registry.getClass());
+			assertEquals(key.getKey(), key.getType(), registry.getClass());
+			assertNotSame(registry, this.createWithRegistry(key));
+		}
+		assertNull(EntryObjectRegistry.get(new AbstractEntryKey("none", "key without factory", ObjectLinks.class, false, null)));
+	}
+
+	@Test
+	public void test_Bench_EntryObjectFactory() throws ReflectiveOperationException {
+		if("true".equals(System.getProperty("Bench"))){
+			for(int round=0; round<3; round++){
+				long start = System.nanoTime();
+				int count = 0;
+				for(int i=0; i<OBJECTS; i++){
+					count += this.createWithReflection(KEYS[i % KEYS.length]).hashCode() & 1;
+				}
+				long reflection = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				for(int i=0; i<OBJECTS; i++){
+					count += this.createWithRegistry(KEYS[i % KEYS.length]).hashCode() & 1;
+				}
+				long registry = System.nanoTime() - start;
+
+				System.out.println(String.format("round %d: reflection %,d ns/object, registry %,d ns/object (%d)", round, reflection/OBJECTS, registry/OBJECTS, count));
+			}
+		}
+	}
+
+	/**
+	 * Creates an entry object the way the loader did before, with reflection.
+	 * @param key the key of the object
+	 * @return new entry object
+	 * @throws ReflectiveOperationException if the object cannot be created
+	 */
+	EntryObject createWithReflection(EntryKey key) throws ReflectiveOperationException {
+		if(ClassUtils.isAssignable(key.getType(), EntryObject.class)){
+			return (EntryObject)key.getType().newInstance();
+		}
+		return null;
+	}
+
+	/**
+	 * Creates an entry object with the factory registered for the key.
+	 * @param key the key of the object
+	 * @return new entry object
+	 */
+	EntryObject createWithRegistry(EntryKey key){
+		Supplier<? extends EntryObject> factory = EntryObjectRegistry.get(key);
+		return factory.get();
+	}
+}
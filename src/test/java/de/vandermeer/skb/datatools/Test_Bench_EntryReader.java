@@ -0,0 +1,153 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatools;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.text.StrBuilder;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.type.TypeReference;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.vandermeer.skb.datatool.commons.EntryReader;
+
+/**
+ * Microbenchmark for the per-file cost of reading entry files, with a new object mapper per file and with a shared entry reader.
+ * The test always checks that both read the same entries, the benchmark runs with "-DBench=true" and prints results to standard out.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_Bench_EntryReader {
+
+	/** Number of files read per round. */
+	static final int FILES = 5000;
+
+	/** Number of entries per file. */
+	static final int ENTRIES = 10;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void test_SameEntries() throws IOException {
+		EntryReader reader = new EntryReader();
+		File file = this.newFile(ENTRIES);
+		assertEquals(ENTRIES, this.readWithReader(reader, file).size());
+		assertEquals(this.readWithMapper(file), this.readWithReader(reader, file));
+
+		File mixed = this.folder.newFile("mixed.acr.json");
+		FileUtils.write(mixed, "[\n// comment\n{\"d\": 65, \"f\": 1.5, \"b\": true, \"n\": null, \"l\": [1, \"a\", {\"x\": []}], \"o\": {\"u\": \"\\u00e9\"}},\n{}\n]\n", "UTF-8");
+		assertEquals(this.readWithMapper(mixed), this.readWithReader(reader, mixed));
+		assertEquals(this.readWithMapper(file), this.readWithReader(reader, file));
+	}
+
+	@Test
+	public void test_Bench_EntryReader() throws IOException {
+		if("true".equals(System.getProperty("Bench"))){
+			File file = this.newFile(ENTRIES);
+
+			EntryReader reader = new EntryReader();
+			for(int round=0; round<3; round++){
+				long start = System.nanoTime();
+				int count = 0;
+				for(int i=0; i<FILES; i++){
+					count += this.readWithMapper(file).size();
+				}
+				long mapper = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				for(int i=0; i<FILES; i++){
+					count += this.readWithReader(reader, file).size();
+				}
+				long shared = System.nanoTime() - start;
+
+				System.out.println(String.format("round %d: new mapper per file %,d ns/file, shared reader %,d ns/file (%d entries)", round, mapper/FILES, shared/FILES, count));
+			}
+		}
+	}
+
+	/**
+	 * Writes an acronym file with comments and links objects.
+	 * @param entries number of entries in the file
+	 * @return the file
+	 * @throws IOException if writing failed
+	 */
+	File newFile(int entries) throws IOException {
+		File ret = this.folder.newFile("bench.acr.json");
+		StrBuilder json = new StrBuilder();
+		json.append("[").appendNewLine();
+		for(int i=0; i<entries; i++){
+			json.appendSeparator(",", i).appendNewLine();
+			json.append("  // entry ").append(i).appendNewLine();
+			json.append("  { \"short\": \"ACR").append(i).append("\", \"long\": \"Acronym Number ").append(i).append("\", \"links\": { \"u\": \"http://www.example.com\" } }");
+		}
+		json.appendNewLine().append("]").appendNewLine();
+		FileUtils.write(ret, json.toString(), "UTF-8");
+		return ret;
+	}
+
+	/**
+	 * Reads a file the way the loader did before, with a new object mapper per file.
+	 * @param file the file to read
+	 * @return read entries
+	 * @throws IOException if reading failed
+	 */
+	List<Map<String, Object>> readWithMapper(File file) throws IOException {
+		ObjectMapper om = new ObjectMapper();
+		om.configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+		List<Map<String, Object>> ret = new ArrayList<>();
+		try(JsonParser jp = om.getJsonFactory().createJsonParser(file)){
+			jp.nextToken();
+			while(jp.nextToken()==JsonToken.START_OBJECT){
+				Map<String, Object> entry = om.readValue(jp, new TypeReference<HashMap<String, Object>>(){});
+				ret.add(entry);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Reads a file with a shared entry reader.
+	 * @param reader the shared reader
+	 * @param file the file to read
+	 * @return read entries
+	 * @throws IOException if reading failed
+	 */
+	List<Map<String, Object>> readWithReader(EntryReader reader, File file) throws IOException {
+		List<Map<String, Object>> ret = new ArrayList<>();
+		try(JsonParser jp = reader.createParser(file)){
+			jp.nextToken();
+			while(jp.nextToken()==JsonToken.START_OBJECT){
+				ret.add(reader.readEntry(jp));
+			}
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,202 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.vandermeer.skb.datatool.commons.AbstractEntryKey;
+import de.vandermeer.skb.datatool.commons.CompactEntryMap;
+import de.vandermeer.skb.datatool.commons.EntryKey;
+import de.vandermeer.skb.datatool.commons.EntrySlots;
+
+/**
+ * Tests that the compact entry map behaves like a hash map, with a null value meaning that a key is not set.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_CompactEntryMap {
+
+	/** Keys of the schema, with string and integer values. */
+	static final List<EntryKey> SCHEMA_KEYS = Arrays.asList(
+			new AbstractEntryKey("s1", "string 1", String.class, false, null),
+			new AbstractEntryKey("s2", "string 2", String.class, false, null),
+			new AbstractEntryKey("i1", "integer 1", Integer.class, false, null),
+			new AbstractEntryKey("i2", "integer 2", Integer.class, false, null)
+	);
+
+	/** Keys not in the schema, added to an entry while loading (local keys). */
+	static final List<EntryKey> LOCAL_KEYS = Arrays.asList(
+			new AbstractEntryKey("l1", "local 1", String.class, false, null),
+			new AbstractEntryKey("l2", "local 2", Integer.class, false, null)
+	);
+
+	@Test
+	public void test_RandomOperations(){
+		List<EntryKey> keys = new ArrayList<>(SCHEMA_KEYS);
+		keys.addAll(LOCAL_KEYS);
+		Random random = new Random(42);
+
+		for(int run=0; run<50; run++){
+			CompactEntryMap map = new CompactEntryMap(new EntrySlots(SCHEMA_KEYS));
+			Map<EntryKey, Object> expected = new HashMap<>();
+			for(int op=0; op<200; op++){
+				EntryKey key = keys.get(random.nextInt(keys.size()));
+				Object value = (Integer.class.equals(key.getType()))?(Object)Integer.valueOf(random.nextInt(5) - 2):"v" + random.nextInt(5);
+				switch(random.nextInt(4)){
+					case 0:
+					case 1:
+						assertEquals(expected.put(key, value), map.put(key, value));
+						break;
+					case 2:
+						assertEquals(expected.remove(key), map.remove(key));
+						break;
+					default:
+						assertEquals(expected.remove(key), map.put(key, null));
+						break;
+				}
+				this.assertSameMap(expected, map);
+			}
+		}
+	}
+
+	@Test
+	public void test_Iterator(){
+		CompactEntryMap map = this.newMap();
+		Map<EntryKey, Object> expected = new HashMap<>(map);
+
+		for(Entry<EntryKey, Object> entry : map.entrySet()){
+			if(entry.getValue() instanceof String){
+				Object old = entry.getValue();
+				assertEquals(old, entry.setValue(old + "x"));
+				expected.put(entry.getKey(), old + "x");
+			}
+		}
+		this.assertSameMap(expected, map);
+
+		Iterator<Entry<EntryKey, Object>> it = map.entrySet().iterator();
+		while(it.hasNext()){
+			Entry<EntryKey, Object> entry = it.next();
+			if(entry.getValue() instanceof Integer){
+				it.remove();
+				expected.remove(entry.getKey());
+			}
+		}
+		this.assertSameMap(expected, map);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void test_IteratorRemoveTwice(){
+		Iterator<Entry<EntryKey, Object>> it = this.newMap().entrySet().iterator();
+		it.next();
+		it.remove();
+		it.remove();
+	}
+
+	@Test
+	public void test_OtherKeys(){
+		CompactEntryMap map = this.newMap();
+		assertNull(map.get("s1"));
+		assertFalse(map.containsKey("s1"));
+		assertNull(map.remove("s1"));
+		assertEquals(5, map.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_IntegerSlotRejectsString(){
+		new CompactEntryMap(new EntrySlots(SCHEMA_KEYS)).put(SCHEMA_KEYS.get(2), "1");
+	}
+
+	@Test
+	public void test_Serialization() throws IOException, ClassNotFoundException {
+		CompactEntryMap map = this.newMap();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(ObjectOutputStream out = new ObjectOutputStream(bytes)){
+			out.writeObject(map);
+		}
+		try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))){
+			Object read = in.readObject();
+			assertEquals(map.size(), ((Map<?, ?>)read).size());
+			assertEquals(new HashSet<>(map.values()), new HashSet<>(((Map<?, ?>)read).values()));
+		}
+	}
+
+	/**
+	 * Asserts that a compact entry map has the same content as a hash map, using all map methods.
+	 * @param expected the hash map
+	 * @param map the compact entry map
+	 */
+	void assertSameMap(Map<EntryKey, Object> expected, CompactEntryMap map){
+		assertEquals(expected.size(), map.size());
+		assertEquals(expected.isEmpty(), map.isEmpty());
+		assertEquals(expected, map);
+		assertEquals(map, expected);
+		assertEquals(expected.hashCode(), map.hashCode());
+		assertEquals(expected.keySet(), map.keySet());
+		assertEquals(expected.entrySet(), map.entrySet());
+		assertEquals(new HashSet<>(expected.values()), new HashSet<>(map.values()));
+		for(EntryKey key : SCHEMA_KEYS){
+			assertEquals(expected.get(key), map.get(key));
+			assertEquals(expected.containsKey(key), map.containsKey(key));
+		}
+		for(EntryKey key : LOCAL_KEYS){
+			assertEquals(expected.get(key), map.get(key));
+			assertEquals(expected.containsKey(key), map.containsKey(key));
+		}
+		int count = 0;
+		for(Entry<EntryKey, Object> entry : map.entrySet()){
+			assertEquals(expected.get(entry.getKey()), entry.getValue());
+			count++;
+		}
+		assertEquals(expected.size(), count);
+	}
+
+	/**
+	 * Returns a new map with all schema keys and one local key set.
+	 * @return new map
+	 */
+	CompactEntryMap newMap(){
+		CompactEntryMap ret = new CompactEntryMap(new EntrySlots(SCHEMA_KEYS));
+		ret.put(SCHEMA_KEYS.get(0), "a");
+		ret.put(SCHEMA_KEYS.get(1), "b");
+		ret.put(SCHEMA_KEYS.get(2), 1);
+		ret.put(SCHEMA_KEYS.get(3), 2);
+		ret.put(LOCAL_KEYS.get(0), "c");
+		assertTrue(ret.containsKey(LOCAL_KEYS.get(0)));
+		return ret;
+	}
+}
@@ -0,0 +1,200 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.vandermeer.skb.base.info.FileSource;
+import de.vandermeer.skb.datatool.commons.CoreSettings;
+import de.vandermeer.skb.datatool.commons.DataEntryFactory;
+import de.vandermeer.skb.datatool.commons.DataSet;
+import de.vandermeer.skb.datatool.entries.acronyms.AcronymEntry;
+
+/**
+ * Tests that an incremental reload of a data set gives the same result as a full load.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_DataSetReload {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void test_RejectedEntryComesBack() throws IOException {
+		File a = this.write("a", "[{\"short\": \"ABC\", \"long\": \"A B C\"}]");
+		File b = this.write("b", "[{\"short\": \"ABC\", \"long\": \"A B C\"}, {\"short\": \"XY\", \"long\": \"X Y\"}]");
+		List<FileSource> fsl = this.files(a, b);
+
+		DataSet<AcronymEntry> ds = this.newSet();
+		ds.load(fsl, "acr");
+		assertEquals(1, ds.getErrorNumber());
+		this.assertSame(ds, fsl);
+
+		this.write("a", "[{\"short\": \"ABD\", \"long\": \"A B D\"}]");
+		ds.reload(fsl, "acr");
+		assertEquals(0, ds.getErrorNumber());
+		assertEquals(3, ds.getMap().size());
+		this.assertSame(ds, fsl);
+	}
+
+	@Test
+	public void test_ChangedEarlierFileWins() throws IOException {
+		File a = this.write("a", "[{\"short\": \"ABD\", \"long\": \"A B D\"}]");
+		File b = this.write("b", "[{\"short\": \"ABC\", \"long\": \"A B C\"}]");
+		List<FileSource> fsl = this.files(a, b);
+
+		DataSet<AcronymEntry> ds = this.newSet();
+		ds.load(fsl, "acr");
+		assertEquals(0, ds.getErrorNumber());
+
+		this.write("a", "[{\"short\": \"ABC\", \"long\": \"A B C\"}]");
+		ds.reload(fsl, "acr");
+		assertEquals(1, ds.getErrorNumber());
+		this.assertSame(ds, fsl);
+	}
+
+	@Test
+	public void test_UnchangedFileKeepsErrors() throws IOException {
+		File a = this.write("a", "[{\"short\": \"ABC\", \"long\": \"A B C\"}]");
+		File b = this.write("b", "[{\"short\": \"ABC\", \"long\": \"A B C\"}]");
+		File c = this.write("c", "[{\"short\": \"XY\", \"long\": \"X Y\"}]");
+		List<FileSource> fsl = this.files(a, b, c);
+
+		DataSet<AcronymEntry> ds = this.newSet();
+		ds.load(fsl, "acr");
+		assertEquals(1, ds.getErrorNumber());
+
+		this.write("c", "[{\"short\": \"XZ\", \"long\": \"X Z\"}]");
+		ds.reload(fsl, "acr");
+		assertEquals(1, ds.getErrorNumber());
+		this.assertSame(ds, fsl);
+	}
+
+	@Test
+	public void test_TouchedFileIsNotParsed() throws IOException {
+		//content after the array, behind the parser's read buffer, is part of the fingerprint
+		String json = "[{\"short\": \"ABC\", \"long\": \"A B C\"}]" + StringUtils.repeat(' ', 20000);
+		File a = this.write("a", json + "//1");
+		List<FileSource> fsl = this.files(a);
+
+		DataSet<AcronymEntry> ds = this.newSet();
+		ds.load(fsl, "acr");
+		AcronymEntry entry = ds.getEntries().get(0);
+
+		assertTrue(a.setLastModified(a.lastModified() + 10000));
+		ds.reload(fsl, "acr");
+		assertTrue(entry==ds.getEntries().get(0));
+
+		this.write("a", json + "//2");
+		assertTrue(a.setLastModified(a.lastModified() + 20000));
+		ds.reload(fsl, "acr");
+		assertTrue(entry!=ds.getEntries().get(0));
+		this.assertSame(ds, fsl);
+	}
+
+	/**
+	 * Asserts that a data set has the same entries and problems as a new data set loaded from the same files.
+	 * @param ds the data set to test
+	 * @param fsl the files
+	 */
+	void assertSame(DataSet<AcronymEntry> ds, List<FileSource> fsl){
+		DataSet<AcronymEntry> expected = this.newSet();
+		expected.load(fsl, "acr");
+		assertEquals(this.toMap(expected), this.toMap(ds));
+		assertEquals(expected.getErrorNumber(), ds.getErrorNumber());
+		assertEquals(expected.getFileNumber(), ds.getFileNumber());
+	}
+
+	/**
+	 * Returns the content of a data set as keys mapped to short and long form.
+	 * @param ds the data set
+	 * @return sorted content of the data set
+	 */
+	Map<String, String> toMap(DataSet<AcronymEntry> ds){
+		Map<String, String> ret = new TreeMap<>();
+		for(AcronymEntry entry : ds.getEntries()){
+			ret.put(entry.getKey(), entry.getShort() + "=" + entry.getLong());
+		}
+		return ret;
+	}
+
+	/**
+	 * Writes an acronym entry file.
+	 * @param name file name without extension
+	 * @param json file content
+	 * @return the file
+	 * @throws IOException if writing failed
+	 */
+	File write(String name, String json) throws IOException {
+		File ret = new File(this.folder.getRoot(), name + ".acr.json");
+		FileUtils.write(ret, json, StandardCharsets.UTF_8.name());
+		return ret;
+	}
+
+	/**
+	 * Returns file sources for files.
+	 * @param files the files
+	 * @return list of file sources in the order of the files
+	 */
+	List<FileSource> files(File ... files){
+		List<FileSource> ret = new ArrayList<>();
+		for(File file : files){
+			ret.add(new FileSource(file));
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns a new, empty acronym data set.
+	 * @return new data set
+	 */
+	DataSet<AcronymEntry> newSet(){
+		CoreSettings cs = new CoreSettings(':', false, "test", this.folder.getRoot().getAbsolutePath(), null);
+		cs.setIncremental(true);
+		return new DataSet<>(cs, new DataEntryFactory<AcronymEntry>() {
+			@Override
+			public AcronymEntry newInstance() {
+				return new AcronymEntry();
+			}
+
+			@Override
+			public AcronymEntry newInstanceLoaded(String keyStart, Map<String, Object> entryMap) throws URISyntaxException {
+				AcronymEntry ret = new AcronymEntry();
+				ret.load(keyStart, entryMap, cs);
+				return ret;
+			}
+		});
+	}
+}
@@ -0,0 +1,157 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatools;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.vandermeer.skb.datatool.commons.CoreSettings;
+import de.vandermeer.skb.datatool.entries.encodings.EncodingEntry;
+import de.vandermeer.skb.datatool.entries.encodings.EncodingIndex;
+
+/**
+ * Tests the encoding index for code points in and outside the basic multilingual plane.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_EncodingIndex {
+
+	/** Core settings for loading entries. */
+	static final CoreSettings CS = new CoreSettings(':', false, "test", "/tmp", null);
+
+	/** Code points that must always work, at the borders of the planes and surrogate ranges. */
+	static final int[] EDGES = new int[]{0, 0x41, 0xD7FF, 0xE000, 0xFFFF, 0x10000, 0x1F600, 0x10FFFF};
+
+	/** Code points that are not valid. */
+	static final int[] INVALID = new int[]{-1, Integer.MIN_VALUE, 0x110000, Integer.MAX_VALUE};
+
+	@Test
+	public void test_RandomCodePoints() throws URISyntaxException {
+		Random random = new Random(42);
+		List<EncodingEntry> entries = new ArrayList<>();
+		Map<Integer, EncodingEntry> expected = new HashMap<>();
+		for(int cp : EDGES){
+			this.add(cp, entries, expected);
+		}
+		for(int i=0; i<2000; i++){
+			this.add(random.nextInt(0x1000), entries, expected);
+			this.add(0x10000 + random.nextInt(Character.MAX_CODE_POINT - 0x10000 + 1), entries, expected);
+		}
+
+		EncodingIndex index = new EncodingIndex(entries);
+		assertEquals(expected.size(), index.size());
+		for(Map.Entry<Integer, EncodingEntry> e : expected.entrySet()){
+			assertSame(Integer.toHexString(e.getKey()), e.getValue(), index.get(e.getKey()));
+		}
+		for(int i=0; i<100000; i++){
+			int cp = (i%2==0)?random.nextInt(0x1000):0x10000 + random.nextInt(Character.MAX_CODE_POINT - 0x10000 + 1);
+			assertSame(Integer.toHexString(cp), expected.get(cp), index.get(cp));
+			assertEquals(expected.containsKey(cp), index.contains(cp));
+		}
+		for(int cp : INVALID){
+			assertNull(index.get(cp));
+		}
+	}
+
+	@Test
+	public void test_Duplicates() throws URISyntaxException {
+		EncodingEntry first = this.newEntry(0x1F600);
+		EncodingEntry second = this.newEntry(0x1F600);
+		EncodingIndex index = new EncodingIndex(Arrays.asList(this.newEntry(0x41), first, second, this.newEntry(0x41)));
+		assertEquals(2, index.size());
+		assertSame(second, index.get(0x1F600));
+	}
+
+	@Test
+	public void test_OnlySupplementary() throws URISyntaxException {
+		EncodingIndex index = new EncodingIndex(Arrays.asList(this.newEntry(0x1F600)));
+		assertEquals(1, index.size());
+		assertTrue(index.contains(0x1F600));
+		assertFalse(index.contains(0x41));
+		assertFalse(index.contains(0x1F601));
+	}
+
+	@Test
+	public void test_Empty(){
+		EncodingIndex index = new EncodingIndex(new ArrayList<>());
+		assertEquals(0, index.size());
+		assertNull(index.get(0x41));
+		assertNull(index.get(0x1F600));
+		assertTrue(index.covers(""));
+	}
+
+	@Test
+	public void test_Coverage() throws URISyntaxException {
+		EncodingIndex index = new EncodingIndex(Arrays.asList(this.newEntry('a'), this.newEntry('b'), this.newEntry(0x1F600), this.newEntry(0x1D11E)));
+		String smiley = new String(Character.toChars(0x1F600));
+		String clef = new String(Character.toChars(0x1D11E));
+
+		assertTrue(index.covers("ab" + smiley + clef + "a"));
+		assertFalse(index.covers("abc"));
+		assertFalse(index.covers("a" + new String(Character.toChars(0x1F601))));
+		assertFalse(index.covers("a\uD83D"));
+
+		assertArrayEquals(new int[0], index.getMissing("ab" + smiley + clef));
+		assertArrayEquals(new int[]{0x1F601, 'c'}, index.getMissing("a" + new String(Character.toChars(0x1F601)) + "cc" + smiley + new String(Character.toChars(0x1F601))));
+		assertArrayEquals(new int[]{0x1F5FF, 0x1F601}, index.getMissing(0x1F5FF, 0x1F601));
+		assertArrayEquals(new int[]{'c'}, index.getMissing('a', 'c'));
+	}
+
+	/**
+	 * Adds a new entry for a code point to a list and a reference map.
+	 * @param cp the code point
+	 * @param entries list of all entries
+	 * @param expected reference map, the last entry for a code point wins
+	 * @throws URISyntaxException if loading the entry failed
+	 */
+	void add(int cp, List<EncodingEntry> entries, Map<Integer, EncodingEntry> expected) throws URISyntaxException {
+		EncodingEntry entry = this.newEntry(cp);
+		entries.add(entry);
+		expected.put(cp, entry);
+	}
+
+	/**
+	 * Returns a new encoding entry.
+	 * @param cp the code point of the entry
+	 * @return new loaded entry
+	 * @throws URISyntaxException if loading the entry failed
+	 */
+	EncodingEntry newEntry(int cp) throws URISyntaxException {
+		Map<String, Object> data = new LinkedHashMap<>();
+		data.put("d", cp);
+		data.put("c", new String(Character.toChars(cp)));
+		EncodingEntry ret = new EncodingEntry();
+		ret.load("", data, CS);
+		return ret;
+	}
+}
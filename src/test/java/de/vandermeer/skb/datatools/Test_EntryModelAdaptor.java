@@ -0,0 +1,277 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.stringtemplate.v4.STGroup;
+import org.stringtemplate.v4.misc.ObjectModelAdaptor;
+import org.stringtemplate.v4.misc.STNoSuchPropertyException;
+
+import de.vandermeer.skb.base.info.FileSource;
+import de.vandermeer.skb.datatool.backend.EntryModelAdaptor;
+import de.vandermeer.skb.datatool.commons.CoreSettings;
+import de.vandermeer.skb.datatool.commons.DataEntry;
+import de.vandermeer.skb.datatool.commons.DataEntryFactory;
+import de.vandermeer.skb.datatool.commons.DataSet;
+import de.vandermeer.skb.datatool.commons.EntryKey;
+import de.vandermeer.skb.datatool.commons.EntryObject;
+import de.vandermeer.skb.datatool.commons.LinkResolution;
+import de.vandermeer.skb.datatool.commons.LinkToken;
+import de.vandermeer.skb.datatool.commons.LoadedTypeMap;
+import de.vandermeer.skb.datatool.entries.EntryKeys;
+import de.vandermeer.skb.datatool.entries.acronyms.AcronymEntry;
+import de.vandermeer.skb.datatool.entries.affiliations.AffiliationEntryLoader;
+import de.vandermeer.skb.datatool.entries.affiliations.AffiliationtypeEntry;
+import de.vandermeer.skb.datatool.entries.encodings.EncodingEntry;
+import de.vandermeer.skb.datatool.entries.encodings.Htmlentry;
+import de.vandermeer.skb.datatool.entries.people.PeopleEntry;
+
+/**
+ * Tests that the entry model adaptor returns the same values as the getters of entries and entry objects.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_EntryModelAdaptor {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/** Links and geographic information used for entries that have them. */
+	static final Map<String, Object> LINKS = map("u", "http://www.example.com", "w", "https://en.wikipedia.org/wiki/Example");
+	static final Map<String, Object> GEO = map("city-name", "Dublin", "country-name", "Ireland");
+
+	@Test
+	public void test_Acronym() throws URISyntaxException {
+		this.assertProperties(this.load(new AcronymEntry(), map("short", "ABC", "long", "A B C", "descr", "the alphabet", "links", LINKS)));
+	}
+
+	@Test
+	public void test_Affiliationtype() throws URISyntaxException {
+		this.assertProperties(this.load(new AffiliationtypeEntry(), map("short", "UNI", "long", "University")));
+	}
+
+	@Test
+	public void test_Affiliation() throws IOException, URISyntaxException {
+		CoreSettings cs = this.newSettings(this.folder.getRoot().getAbsolutePath());
+		DataSet<AcronymEntry> acronyms = this.newSet("acronyms.acr.json", "[{\"short\": \"TCD\", \"long\": \"Trinity College Dublin\"}]", AcronymEntry::new, cs);
+		DataSet<AffiliationtypeEntry> types = this.newSet("types.aff-types.json", "[{\"short\": \"uni\", \"long\": \"University\"}]", AffiliationtypeEntry::new, cs);
+		LoadedTypeMap loadedTypes = new LoadedTypeMap();
+		loadedTypes.put(AcronymEntry.ENTRY_TYPE, acronyms);
+		loadedTypes.put(AffiliationtypeEntry.ENTRY_TYPE, types);
+
+		AffiliationEntryLoader loader = new AffiliationEntryLoader();
+		loader.setLoadedTypes(loadedTypes);
+		String acronym = "skb://acronyms/" + acronyms.getEntries().get(0).getKey();
+		String type = "skb://affiliation-types/" + types.getEntries().get(0).getKey();
+		this.assertProperties(this.load(loader.getEntryFactory().newInstance(), map("key", "tcd", "type", type, "acronym", acronym, "long", "Trinity College", "addr", "College Green", "geo", GEO, "links", LINKS)));
+		this.assertProperties(this.load(loader.getEntryFactory().newInstance(), map("type", type, "short", "UCD", "long", "University College Dublin")));
+	}
+
+	@Test
+	public void test_People() throws URISyntaxException {
+		this.assertProperties(this.load(new PeopleEntry(), map("first", "Ada", "middle", "King", "last", "Lovelace")));
+	}
+
+	@Test
+	public void test_Encoding() throws URISyntaxException {
+		this.assertProperties(this.load(new EncodingEntry(), map("d", 65, "c", "A", "he", "&#65;", "b", "Basic Latin", "s", "Latin", "ltx", "A", "ad", "A", "descr", "capital A")));
+	}
+
+	@Test
+	public void test_Htmlentry() throws URISyntaxException {
+		this.assertProperties(this.load(new Htmlentry(), map("he", "<b>", "ltx", "\\textbf{", "ad", "*", "descr", "bold")));
+	}
+
+	@Test
+	public void test_DanglingLink() throws IOException {
+		CoreSettings cs = this.newSettings(this.folder.getRoot().getAbsolutePath());
+		DataSet<AcronymEntry> acronyms = this.newSet("acronyms.acr.json", "[{\"short\": \"TCD\", \"long\": \"Trinity College Dublin\"}]", AcronymEntry::new, cs);
+		DataSet<AffiliationtypeEntry> types = this.newSet("types.aff-types.json", "[{\"short\": \"uni\", \"long\": \"University\"}]", AffiliationtypeEntry::new, cs);
+		LoadedTypeMap loadedTypes = new LoadedTypeMap();
+		loadedTypes.put(AcronymEntry.ENTRY_TYPE, acronyms);
+		loadedTypes.put(AffiliationtypeEntry.ENTRY_TYPE, types);
+
+		AffiliationEntryLoader loader = new AffiliationEntryLoader();
+		loader.setLoadedTypes(loadedTypes);
+		String type = "skb://affiliation-types/" + types.getEntries().get(0).getKey();
+		DataSet<DataEntry> affiliations = this.newSet("affiliations.aff.json",
+				"[{\"key\": \"a\", \"type\": \"" + type + "\", \"acronym\": \"skb://acronyms/" + acronyms.getEntries().get(0).getKey() + "\", \"long\": \"A\"},"
+				+ " {\"key\": \"b\", \"type\": \"" + type + "\", \"acronym\": \"skb://acronyms/none\", \"long\": \"B\"}]",
+				loader.getEntryFactory()::newInstance, cs, 2);
+		DataEntry good = affiliations.getEntries().get(0);
+		DataEntry dangling = affiliations.getEntries().get(1);
+		assertEquals(0, affiliations.getErrorNumber());
+
+		EntryModelAdaptor adaptor = new EntryModelAdaptor();
+		try{
+			adaptor.getProperty(null, null, dangling, "acronym", "acronym");
+			fail("dangling link must be reported as missing property");
+		}
+		catch(STNoSuchPropertyException ex){
+			assertTrue(ex.getCause() instanceof IllegalArgumentException);
+		}
+
+		assertEquals(3, affiliations.checkLinks());
+		assertEquals(1, affiliations.getErrorNumber());
+		assertNull(adaptor.getProperty(null, null, dangling, "acronym", "acronym"));
+		Object token = good.getEntryMap().get(EntryKeys.ACRONYM);
+		assertTrue(token instanceof LinkToken);
+		assertFalse(((LinkToken)token).isResolved());
+		assertSame(acronyms.getEntries().get(0), adaptor.getProperty(null, null, good, "acronym", "acronym"));
+	}
+
+	@Test
+	public void test_RegisterPerGroup(){
+		STGroup g1 = new STGroup();
+		STGroup g2 = new STGroup();
+		EntryModelAdaptor.register(g1);
+		EntryModelAdaptor.register(g2);
+
+		assertSame(g1.getModelAdaptor(DataEntry.class), g1.getModelAdaptor(EntryObject.class));
+		assertNotSame(g1.getModelAdaptor(DataEntry.class), g2.getModelAdaptor(DataEntry.class));
+	}
+
+	/**
+	 * Asserts that the adaptor returns the same value as the getter for every property of an entry or object, and the same for every entry object it contains.
+	 * @param o a data entry or entry object
+	 */
+	void assertProperties(Object o){
+		EntryModelAdaptor adaptor = new EntryModelAdaptor();
+		ObjectModelAdaptor getters = new ObjectModelAdaptor();
+		Map<String, EntryKey> properties = (o instanceof DataEntry)?((DataEntry)o).getSchema().getProperties():((EntryObject)o).getSchema().getProperties();
+		assertTrue(o.getClass().getSimpleName() + " defines no properties", properties.size()>0);
+
+		int set = 0;
+		for(String name : properties.keySet()){
+			Object expected = getters.getProperty(null, null, o, name, name);
+			assertEquals(o.getClass().getSimpleName() + "." + name, expected, adaptor.getProperty(null, null, o, name, name));
+			if(expected!=null){
+				set++;
+			}
+			if(expected instanceof EntryObject){
+				this.assertProperties(expected);
+			}
+		}
+		assertTrue(o.getClass().getSimpleName() + " has no property set", set>0);
+
+		if(o instanceof DataEntry){
+			assertEquals(getters.getProperty(null, null, o, "key", "key"), adaptor.getProperty(null, null, o, "key", "key"));
+		}
+	}
+
+	/**
+	 * Loads an entry from data, links are not resolved.
+	 * @param entry the entry to load
+	 * @param data the entry data
+	 * @return the loaded entry
+	 * @throws URISyntaxException if a link in the data is not a valid URI
+	 */
+	DataEntry load(DataEntry entry, Map<String, Object> data) throws URISyntaxException {
+		entry.load("test", data, this.newSettings(this.folder.getRoot().getAbsolutePath()));
+		return entry;
+	}
+
+	/**
+	 * Returns a new data set loaded from a single file.
+	 * @param fileName name of the file, with the file extension of the data set
+	 * @param json file content
+	 * @param factory factory for new entries
+	 * @param cs core settings with the folder of the file as input directory
+	 * @return the loaded data set
+	 * @throws IOException if writing the file failed
+	 */
+	<E extends DataEntry> DataSet<E> newSet(String fileName, String json, Supplier<E> factory, CoreSettings cs) throws IOException {
+		return this.newSet(fileName, json, factory, cs, 1);
+	}
+
+	/**
+	 * Returns a new data set loaded from a single file.
+	 * @param fileName name of the file, with the file extension of the data set
+	 * @param json file content
+	 * @param factory factory for new entries
+	 * @param cs core settings with the folder of the file as input directory
+	 * @param size expected number of entries
+	 * @return the loaded data set
+	 * @throws IOException if writing the file failed
+	 */
+	<E extends DataEntry> DataSet<E> newSet(String fileName, String json, Supplier<E> factory, CoreSettings cs, int size) throws IOException {
+		File file = new File(this.folder.getRoot(), fileName);
+		FileUtils.write(file, json, StandardCharsets.UTF_8.name());
+		DataSet<E> ret = new DataSet<>(cs, new DataEntryFactory<E>() {
+			@Override
+			public E newInstance() {
+				return factory.get();
+			}
+
+			@Override
+			public E newInstanceLoaded(String keyStart, Map<String, Object> entryMap) throws URISyntaxException {
+				E entry = factory.get();
+				entry.load(keyStart, entryMap, cs);
+				return entry;
+			}
+		});
+		ret.load(Arrays.asList(new FileSource(file)), StringUtils.substringBetween(fileName, ".", ".json"));
+		assertEquals(size, ret.getMap().size());
+		return ret;
+	}
+
+	/**
+	 * Returns core settings that do not resolve links while loading.
+	 * @param directory the input directory
+	 * @return new core settings
+	 */
+	CoreSettings newSettings(String directory){
+		CoreSettings ret = new CoreSettings(':', false, "test", directory, null);
+		ret.setLinkResolution(LinkResolution.LAZY);
+		return ret;
+	}
+
+	/**
+	 * Returns a map for key/value pairs.
+	 * @param kv keys and values, alternating
+	 * @return new map
+	 */
+	static Map<String, Object> map(Object ... kv){
+		Map<String, Object> ret = new LinkedHashMap<>();
+		for(int i=0; i<kv.length; i+=2){
+			ret.put((String)kv[i], kv[i+1]);
+		}
+		return ret;
+	}
+}
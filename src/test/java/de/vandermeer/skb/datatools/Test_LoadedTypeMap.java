@@ -0,0 +1,125 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.vandermeer.skb.base.info.FileSource;
+import de.vandermeer.skb.datatool.commons.CoreSettings;
+import de.vandermeer.skb.datatool.commons.DataEntryFactory;
+import de.vandermeer.skb.datatool.commons.DataSet;
+import de.vandermeer.skb.datatool.commons.LoadedTypeMap;
+import de.vandermeer.skb.datatool.entries.acronyms.AcronymEntry;
+
+/**
+ * Tests for the link cache of the loaded type map.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_LoadedTypeMap {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void test_LinkCacheKeepsHits() throws IOException, URISyntaxException {
+		DataSet<AcronymEntry> ds = this.newSet(LoadedTypeMap.LINK_CACHE_SIZE + 1);
+		LoadedTypeMap ltm = new LoadedTypeMap().put(AcronymEntry.ENTRY_TYPE, ds);
+		List<AcronymEntry> entries = ds.getEntries();
+
+		//the first entry is removed from the data set once its link is cached, so it can only be found in the cache
+		AcronymEntry hit = entries.get(0);
+		assertSame(hit, ltm.resolveLink(this.link(hit)));
+		ds.removeEntry(hit.getKey());
+
+		//the cached link is used again and again while all other links pass through the cache once
+		for(int i=1; i<entries.size(); i++){
+			assertSame(entries.get(i), ltm.resolveLink(this.link(entries.get(i))));
+			if(i%100==0){
+				assertSame(hit, ltm.resolveLink(this.link(hit)));
+			}
+		}
+		assertSame(hit, ltm.resolveLink(this.link(hit)));
+
+		//the least recently used link has been evicted
+		AcronymEntry evicted = entries.get(1);
+		ds.removeEntry(evicted.getKey());
+		try{
+			ltm.resolveLink(this.link(evicted));
+			fail("least recently used link not evicted from the cache");
+		}
+		catch(IllegalArgumentException expected){}
+	}
+
+	/**
+	 * Returns the SKB link of an acronym.
+	 * @param entry the acronym
+	 * @return link to the acronym
+	 */
+	String link(AcronymEntry entry){
+		return "skb://acronyms/" + entry.getKey();
+	}
+
+	/**
+	 * Returns a new acronym data set loaded from a single file.
+	 * @param size number of acronyms in the file
+	 * @return loaded data set
+	 * @throws IOException if writing the file failed
+	 */
+	DataSet<AcronymEntry> newSet(int size) throws IOException {
+		StringBuilder json = new StringBuilder("[");
+		for(int i=0; i<size; i++){
+			json.append((i==0)?"":",").append("{\"short\": \"A").append(i).append("\", \"long\": \"Acronym ").append(i).append("\"}");
+		}
+		File file = new File(this.folder.getRoot(), "acronyms.acr.json");
+		FileUtils.write(file, json.append("]").toString(), StandardCharsets.UTF_8.name());
+
+		CoreSettings cs = new CoreSettings(':', false, "test", this.folder.getRoot().getAbsolutePath(), null);
+		DataSet<AcronymEntry> ret = new DataSet<>(cs, new DataEntryFactory<AcronymEntry>() {
+			@Override
+			public AcronymEntry newInstance() {
+				return new AcronymEntry();
+			}
+
+			@Override
+			public AcronymEntry newInstanceLoaded(String keyStart, Map<String, Object> entryMap) throws URISyntaxException {
+				AcronymEntry ret = new AcronymEntry();
+				ret.load(keyStart, entryMap, cs);
+				return ret;
+			}
+		});
+		ret.load(Arrays.asList(new FileSource(file)), "acr");
+		assertEquals(size, ret.getMap().size());
+		return ret;
+	}
+}
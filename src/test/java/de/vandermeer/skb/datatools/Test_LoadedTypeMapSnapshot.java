@@ -0,0 +1,209 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.vandermeer.skb.base.info.FileSource;
+import de.vandermeer.skb.datatool.commons.CoreSettings;
+import de.vandermeer.skb.datatool.commons.DataEntry;
+import de.vandermeer.skb.datatool.commons.DataEntryType;
+import de.vandermeer.skb.datatool.commons.DataSet;
+import de.vandermeer.skb.datatool.commons.DirectoryIndex;
+import de.vandermeer.skb.datatool.commons.LinkResolution;
+import de.vandermeer.skb.datatool.commons.LoadedTypeMap;
+import de.vandermeer.skb.datatool.commons.LoadedTypeMapSnapshot;
+import de.vandermeer.skb.datatool.commons.TypeLoaderMap;
+import de.vandermeer.skb.datatool.entries.acronyms.AcronymEntry;
+import de.vandermeer.skb.datatool.entries.acronyms.AcronymEntryLoader;
+import de.vandermeer.skb.datatool.entries.affiliations.AffiliationEntry;
+import de.vandermeer.skb.datatool.entries.affiliations.AffiliationEntryLoader;
+import de.vandermeer.skb.datatool.entries.affiliations.AffiliationtypeEntry;
+import de.vandermeer.skb.datatool.entries.affiliations.AffiliationtypeEntryLoader;
+
+/**
+ * Tests that a loaded type map read from a snapshot is the same as the map that was written.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_LoadedTypeMapSnapshot {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/** Input directory with the JSON files. */
+	File in;
+
+	/** Core settings, links are resolved lazily so they are stored as link tokens. */
+	CoreSettings cs;
+
+	/** Loaders for the types used in the tests. */
+	TypeLoaderMap tlMap;
+
+	@Before
+	public void setUp() throws IOException {
+		this.in = this.folder.newFolder("in");
+		this.cs = new CoreSettings(':', false, "test", this.in.getAbsolutePath(), null);
+		this.cs.setLinkResolution(LinkResolution.LAZY);
+		this.cs.setIncremental(true);
+		this.tlMap = new TypeLoaderMap()
+				.put(new AcronymEntryLoader())
+				.put(new AffiliationtypeEntryLoader())
+				.put(new AffiliationEntryLoader())
+		;
+		for(DataEntryType type : this.tlMap.getMap().keySet()){
+			this.tlMap.getLoader(type).setCs(this.cs);
+		}
+	}
+
+	@Test
+	public void test_RoundTrip() throws IOException {
+		LoadedTypeMap loadedTypes = this.loadAll();
+		LoadedTypeMapSnapshot snapshot = new LoadedTypeMapSnapshot(new File(this.folder.getRoot(), "snapshot.bin").getAbsolutePath(), this.fingerprint());
+		snapshot.write(loadedTypes);
+
+		LoadedTypeMap restored = snapshot.read(this.tlMap, this.cs);
+		assertNotNull(restored);
+		assertEquals(loadedTypes.keySet(), restored.keySet());
+		for(DataEntryType type : loadedTypes.keySet()){
+			assertEquals(type.getType(), this.toMap(loadedTypes.get(type)), this.toMap(restored.get(type)));
+		}
+
+		AffiliationEntry affiliation = (AffiliationEntry)restored.get(AffiliationEntry.ENTRY_TYPE).getEntries().get(0);
+		AcronymEntry acronym = (AcronymEntry)restored.get(AcronymEntry.ENTRY_TYPE).getEntries().get(0);
+		assertSame(acronym, affiliation.getAcronym());
+	}
+
+	@Test
+	public void test_RestoredSetReloads() throws IOException {
+		LoadedTypeMap loadedTypes = this.loadAll();
+		LoadedTypeMapSnapshot snapshot = new LoadedTypeMapSnapshot(new File(this.folder.getRoot(), "snapshot.bin").getAbsolutePath(), this.fingerprint());
+		snapshot.write(loadedTypes);
+		@SuppressWarnings("unchecked")
+		DataSet<AcronymEntry> restored = (DataSet<AcronymEntry>)snapshot.read(this.tlMap, this.cs).get(AcronymEntry.ENTRY_TYPE);
+
+		this.write("acronyms.acr.json", "[{\"short\": \"TCD\", \"long\": \"Trinity College Dublin\"}, {\"short\": \"UCD\", \"long\": \"University College Dublin\"}]");
+		List<FileSource> fsl = Arrays.asList(new FileSource(new File(this.in, "acronyms.acr.json")));
+		restored.reload(fsl, "acr");
+
+		DataSet<AcronymEntry> expected = this.newAcronymSet();
+		expected.load(fsl, "acr");
+		assertEquals(this.toMap(expected), this.toMap(restored));
+	}
+
+	@Test
+	public void test_Fingerprint() throws IOException {
+		LoadedTypeMap loadedTypes = this.loadAll();
+		String fingerprint = this.fingerprint();
+		String snapshotFile = new File(this.folder.getRoot(), "snapshot.bin").getAbsolutePath();
+		new LoadedTypeMapSnapshot(snapshotFile, fingerprint).write(loadedTypes);
+
+		assertEquals(fingerprint, this.fingerprint());
+		assertNull(new LoadedTypeMapSnapshot(snapshotFile, LoadedTypeMapSnapshot.fingerprint(this.in.getAbsolutePath(), new DirectoryIndex(this.in.getAbsolutePath()), "v2")).read(this.tlMap, this.cs));
+
+		this.write("types.aff-types.json", "[{\"short\": \"uni\", \"long\": \"University of Dublin\"}]");
+		assertNotEquals(fingerprint, this.fingerprint());
+		assertNull(new LoadedTypeMapSnapshot(snapshotFile, this.fingerprint()).read(this.tlMap, this.cs));
+	}
+
+	/**
+	 * Writes the input files and loads all types.
+	 * @return loaded type map with acronyms, affiliation types, and affiliations
+	 * @throws IOException if writing a file failed
+	 */
+	LoadedTypeMap loadAll() throws IOException {
+		LoadedTypeMap ret = new LoadedTypeMap();
+
+		this.write("acronyms.acr.json", "[{\"short\": \"TCD\", \"long\": \"Trinity College Dublin\"}]");
+		DataSet<AcronymEntry> acronyms = this.newAcronymSet();
+		acronyms.load(Arrays.asList(new FileSource(new File(this.in, "acronyms.acr.json"))), "acr");
+		ret.put(AcronymEntry.ENTRY_TYPE, acronyms);
+
+		this.write("types.aff-types.json", "[{\"short\": \"uni\", \"long\": \"University\"}]");
+		DataSet<AffiliationtypeEntry> types = this.tlMap.<AffiliationtypeEntry>getLoader(AffiliationtypeEntry.ENTRY_TYPE).newSetInstance();
+		types.load(Arrays.asList(new FileSource(new File(this.in, "types.aff-types.json"))), "aff-types");
+		ret.put(AffiliationtypeEntry.ENTRY_TYPE, types);
+
+		this.write("affiliations.aff.json", "[{\"key\": \"tcd\", \"type\": \"skb://affiliation-types/" + types.getEntries().get(0).getKey() + "\", \"acronym\": \"skb://acronyms/" + acronyms.getEntries().get(0).getKey() + "\", \"long\": \"Trinity College\"}]");
+		this.tlMap.getLoader(AffiliationEntry.ENTRY_TYPE).setLoadedTypes(ret);
+		DataSet<AffiliationEntry> affiliations = this.tlMap.<AffiliationEntry>getLoader(AffiliationEntry.ENTRY_TYPE).newSetInstance();
+		affiliations.load(Arrays.asList(new FileSource(new File(this.in, "affiliations.aff.json"))), "aff");
+		assertEquals(0, affiliations.getErrorNumber());
+		ret.put(AffiliationEntry.ENTRY_TYPE, affiliations);
+
+		return ret;
+	}
+
+	/**
+	 * Returns a new, empty acronym data set.
+	 * @return new data set
+	 */
+	DataSet<AcronymEntry> newAcronymSet(){
+		return this.tlMap.<AcronymEntry>getLoader(AcronymEntry.ENTRY_TYPE).newSetInstance();
+	}
+
+	/**
+	 * Returns the fingerprint of the input directory, from a new index of the directory.
+	 * @return fingerprint
+	 * @throws IOException if the directory cannot be read
+	 */
+	String fingerprint() throws IOException {
+		return LoadedTypeMapSnapshot.fingerprint(this.in.getAbsolutePath(), new DirectoryIndex(this.in.getAbsolutePath()), "v1");
+	}
+
+	/**
+	 * Returns the content of a data set as keys mapped to their compare string.
+	 * @param ds the data set
+	 * @return sorted content of the data set
+	 */
+	Map<String, String> toMap(DataSet<?> ds){
+		Map<String, String> ret = new TreeMap<>();
+		for(DataEntry entry : ds.getEntries()){
+			ret.put(entry.getKey(), entry.getCompareString());
+		}
+		return ret;
+	}
+
+	/**
+	 * Writes a file to the input directory.
+	 * @param name file name
+	 * @param json file content
+	 * @throws IOException if writing failed
+	 */
+	void write(String name, String json) throws IOException {
+		FileUtils.write(new File(this.in, name), json, StandardCharsets.UTF_8.name());
+	}
+}
@@ -0,0 +1,170 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.stringtemplate.v4.AutoIndentWriter;
+import org.stringtemplate.v4.ST;
+import org.stringtemplate.v4.STGroup;
+import org.stringtemplate.v4.STGroupFile;
+
+import de.vandermeer.skb.datatool.backend.BackendWriter;
+import de.vandermeer.skb.datatool.backend.EntryModelAdaptor;
+
+/**
+ * Tests that targets with partitioned templates render the same output as their build template.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_PartitionedTemplates {
+
+	/** Targets with partitioned templates. */
+	static final List<String> TARGETS = Arrays.asList(
+			"de/vandermeer/skb/datatool/acronyms/targets/sql-simple.stg",
+			"de/vandermeer/skb/datatool/acronyms/targets/html-table.stg"
+	);
+
+	/** Number of entries to test: none, one, exactly one chunk, one more than a chunk, several chunks. */
+	static final int[] SIZES = new int[]{0, 1, BackendWriter.CHUNK_SIZE, BackendWriter.CHUNK_SIZE + 1, 2500};
+
+	@Test
+	public void test_SameAsBuild(){
+		for(String target : TARGETS){
+			STGroup stg = new STGroupFile(target);
+			EntryModelAdaptor.register(stg);
+			assertTrue(target, stg.isDefined(BackendWriter.ST_ENTRY_CHUNK));
+			for(int size : SIZES){
+				List<Acronym> entries = this.newEntries(size);
+				assertEquals(target + " with <" + size + "> entries", this.render(stg, "build", entries), this.renderPartitioned(stg, entries));
+			}
+		}
+	}
+
+	/**
+	 * Renders entries in partitions as the backend writer does: header, chunks with separator, footer.
+	 * @param stg the group
+	 * @param entries the entries
+	 * @return rendered output
+	 */
+	String renderPartitioned(STGroup stg, List<Acronym> entries){
+		StringBuilder ret = new StringBuilder();
+		if(stg.isDefined(BackendWriter.ST_HEADER)){
+			ret.append(this.render(stg, BackendWriter.ST_HEADER, entries));
+		}
+		String separator = (stg.isDefined(BackendWriter.ST_ENTRY_SEPARATOR))?this.render(stg, BackendWriter.ST_ENTRY_SEPARATOR, null):"";
+		for(int i=0; i<entries.size(); i+=BackendWriter.CHUNK_SIZE){
+			if(i>0){
+				ret.append(separator);
+			}
+			ret.append(this.render(stg, BackendWriter.ST_ENTRY_CHUNK, entries.subList(i, Math.min(i + BackendWriter.CHUNK_SIZE, entries.size()))));
+		}
+		if(stg.isDefined(BackendWriter.ST_FOOTER)){
+			ret.append(this.render(stg, BackendWriter.ST_FOOTER, entries));
+		}
+		return ret.toString();
+	}
+
+	/**
+	 * Renders a template, adding entries only if the template declares the argument "entry".
+	 * @param stg the group
+	 * @param name the template name
+	 * @param entries the entries, null for none
+	 * @return rendered template
+	 */
+	String render(STGroup stg, String name, List<Acronym> entries){
+		ST st = stg.getInstanceOf(name);
+		if(entries!=null && st.impl.formalArguments!=null && st.impl.formalArguments.containsKey("entry")){
+			st.add("entry", entries);
+		}
+		StringWriter ret = new StringWriter();
+		try{
+			st.write(new AutoIndentWriter(ret));
+		}
+		catch(IOException ioe){
+			throw new IllegalStateException(ioe);
+		}
+		return ret.toString();
+	}
+
+	/**
+	 * Returns a list of acronyms, some without optional values.
+	 * @param size number of acronyms
+	 * @return list of acronyms
+	 */
+	List<Acronym> newEntries(int size){
+		if(size==0){
+			return Collections.emptyList();
+		}
+		List<Acronym> ret = new ArrayList<>();
+		for(int i=0; i<size; i++){
+			ret.add(new Acronym(i));
+		}
+		return ret;
+	}
+
+	/**
+	 * An acronym with the properties used by the acronym targets.
+	 */
+	public static class Acronym {
+
+		/** Number of the acronym. */
+		final int number;
+
+		/**
+		 * Returns a new acronym.
+		 * @param number number of the acronym
+		 */
+		Acronym(int number){
+			this.number = number;
+		}
+
+		public String getKey(){
+			return String.format("A%05d", this.number);
+		}
+
+		public String getShort(){
+			return "A" + this.number;
+		}
+
+		public String getLong(){
+			return "Acronym number " + this.number;
+		}
+
+		public String getUrl(){
+			return (this.number%3==0)?null:"http://www.example.com/" + this.number;
+		}
+
+		public String getWikipedia(){
+			return (this.number%5==0)?null:"https://en.wikipedia.org/wiki/" + this.number;
+		}
+
+		public String getDescription(){
+			return (this.number%2==0)?null:"description " + this.number;
+		}
+	}
+}
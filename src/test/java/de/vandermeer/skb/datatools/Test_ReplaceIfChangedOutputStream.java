@@ -0,0 +1,119 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.vandermeer.skb.datatool.backend.ReplaceIfChangedOutputStream;
+
+/**
+ * Tests for replacing output files only on commit and only if the content changed.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_ReplaceIfChangedOutputStream {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void test_Commit() throws IOException {
+		Path target = this.folder.getRoot().toPath().resolve("out.txt");
+
+		assertEquals(Boolean.TRUE, this.write(target, "abc", true));
+		assertEquals("abc", this.read(target));
+
+		FileTime modified = FileTime.fromMillis(1000);
+		Files.setLastModifiedTime(target, modified);
+		assertEquals(Boolean.FALSE, this.write(target, "abc", true));
+		assertEquals(modified, Files.getLastModifiedTime(target));
+
+		assertEquals(Boolean.TRUE, this.write(target, "abd", true));
+		assertEquals("abd", this.read(target));
+
+		assertEquals(Boolean.TRUE, this.write(target, "abcd", true));
+		assertEquals("abcd", this.read(target));
+		assertEquals(1, this.folder.getRoot().list().length);
+	}
+
+	@Test
+	public void test_CloseWithoutCommit() throws IOException {
+		Path target = this.folder.getRoot().toPath().resolve("out.txt");
+		this.write(target, "complete output", true);
+
+		assertNull(this.write(target, "partial", false));
+		assertEquals("complete output", this.read(target));
+		assertEquals(1, this.folder.getRoot().list().length);
+	}
+
+	@Test
+	public void test_AlwaysReplace() throws IOException {
+		Path target = this.folder.getRoot().toPath().resolve("out.txt");
+		this.write(target, "abc", true);
+
+		ReplaceIfChangedOutputStream out = new ReplaceIfChangedOutputStream(target, false);
+		out.write("abc".getBytes(StandardCharsets.UTF_8));
+		out.commit();
+		assertEquals(Boolean.TRUE, out.isChanged());
+		assertEquals("abc", this.read(target));
+		assertEquals(1, this.folder.getRoot().list().length);
+	}
+
+	/**
+	 * Writes content through a new stream.
+	 * @param target the target file
+	 * @param content the content to write
+	 * @param commit true to commit the stream before closing it, false to only close it
+	 * @return result of the stream, null if not committed
+	 * @throws IOException if writing failed
+	 */
+	Boolean write(Path target, String content, boolean commit) throws IOException {
+		ReplaceIfChangedOutputStream out = new ReplaceIfChangedOutputStream(target);
+		try{
+			out.write(content.getBytes(StandardCharsets.UTF_8));
+			if(commit){
+				out.commit();
+			}
+		}
+		finally{
+			out.close();
+		}
+		return out.isChanged();
+	}
+
+	/**
+	 * Reads a file.
+	 * @param file the file
+	 * @return file content
+	 * @throws IOException if reading failed
+	 */
+	String read(Path file) throws IOException {
+		return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+	}
+}
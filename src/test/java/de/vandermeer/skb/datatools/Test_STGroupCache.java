@@ -0,0 +1,115 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatools;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.stringtemplate.v4.STGroup;
+
+import de.vandermeer.skb.datatool.backend.STGroupCache;
+
+/**
+ * Tests for the cache of template groups.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_STGroupCache {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@After
+	public void tearDown(){
+		STGroupCache.invalidateAll();
+	}
+
+	@Test
+	public void test_ExpectedChunksOnEveryLookup() throws IOException {
+		File file = this.write("build(entry) ::= \"a\"");
+		String name = file.getAbsolutePath();
+
+		STGroup stg = STGroupCache.get(name, this.chunks("build"));
+		assertSame(stg, STGroupCache.get(name, this.chunks("build")));
+		this.assertInvalid(name, this.chunks("build", "header"));
+		assertSame(stg, STGroupCache.get(name, this.chunks("build")));
+
+		//a changed file is loaded again and validated for every caller as well
+		this.write("build(entry) ::= \"b\"");
+		STGroup reloaded = STGroupCache.get(name, this.chunks("build"));
+		assertNotSame(stg, reloaded);
+		this.assertInvalid(name, this.chunks("build", "header"));
+
+		this.write("build(entry) ::= \"b\"\nheader(entry) ::= \"h\"");
+		reloaded = STGroupCache.get(name, this.chunks("build", "header"));
+		assertSame(reloaded, STGroupCache.get(name, this.chunks("build")));
+	}
+
+	/**
+	 * Asserts that a lookup fails validation.
+	 * @param name the STG file name
+	 * @param expectedChunks chunks the group does not provide
+	 */
+	void assertInvalid(String name, Map<String, Set<String>> expectedChunks){
+		try{
+			STGroupCache.get(name, expectedChunks);
+			fail("group validated without chunks " + expectedChunks.keySet());
+		}
+		catch(IllegalStateException expected){}
+	}
+
+	/**
+	 * Returns expected chunks, all with the argument "entry".
+	 * @param names the names of the chunks
+	 * @return expected chunks
+	 */
+	Map<String, Set<String>> chunks(String ... names){
+		Map<String, Set<String>> ret = new HashMap<>();
+		for(String name : names){
+			ret.put(name, new HashSet<>(Arrays.asList("entry")));
+		}
+		return ret;
+	}
+
+	/**
+	 * Writes the STG file of the test.
+	 * @param content the file content
+	 * @return the file
+	 * @throws IOException if writing failed
+	 */
+	File write(String content) throws IOException {
+		File ret = new File(this.folder.getRoot(), "test.stg");
+		FileUtils.write(ret, content, StandardCharsets.UTF_8.name());
+		return ret;
+	}
+}
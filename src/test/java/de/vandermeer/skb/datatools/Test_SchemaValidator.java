@@ -0,0 +1,124 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.vandermeer.skb.datatool.commons.AbstractDataEntrySchema;
+import de.vandermeer.skb.datatool.commons.AbstractEntryKey;
+import de.vandermeer.skb.datatool.commons.DataEntrySchema;
+import de.vandermeer.skb.datatool.commons.EntryKey;
+import de.vandermeer.skb.datatool.commons.SchemaValidator;
+import de.vandermeer.skb.datatool.entries.acronyms.AcronymEntry;
+import de.vandermeer.skb.datatool.entries.affiliations.AffiliationtypeEntry;
+import de.vandermeer.skb.datatool.entries.encodings.EncodingEntry;
+import de.vandermeer.skb.datatool.entries.people.PeopleEntry;
+
+/**
+ * Tests that the schema validator accepts exactly the data that the schema test accepts.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_SchemaValidator {
+
+	/** Values used for keys in the generated data. */
+	static final List<Object> VALUES = Arrays.asList(
+			null, "", "x", 0, 1, 0.0, true, false,
+			new HashMap<String, Object>(), Collections.singletonMap("u", "x"),
+			new ArrayList<Object>(), Arrays.asList("x")
+	);
+
+	@Test
+	public void test_ShippedSchemas(){
+		this.assertSameResult(AcronymEntry.SCHEMA);
+		this.assertSameResult(AffiliationtypeEntry.SCHEMA);
+		this.assertSameResult(EncodingEntry.SCHEMA);
+		this.assertSameResult(PeopleEntry.SCHEMA);
+	}
+
+	@Test
+	public void test_MandatoryAndOptional(){
+		Map<EntryKey, Boolean> keyMap = new HashMap<>();
+		keyMap.put(new AbstractEntryKey("m1", "mandatory 1", String.class, false, null), true);
+		keyMap.put(new AbstractEntryKey("m2", "mandatory 2", Integer.class, false, null), true);
+		keyMap.put(new AbstractEntryKey("o1", "optional 1", String.class, false, null), false);
+		keyMap.put(new AbstractEntryKey("o2", "optional 2", String.class, false, null), false);
+		this.assertSameResult(new AbstractDataEntrySchema(keyMap));
+	}
+
+	@Test
+	public void test_NoMap(){
+		SchemaValidator validator = new SchemaValidator(new HashMap<>());
+		assertFalse(validator.isValid(null));
+		assertFalse(validator.isValid("x"));
+		assertFalse(validator.isValid(Arrays.asList("x")));
+		assertTrue(validator.isValid(new HashMap<>()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_TooManyKeys(){
+		Map<EntryKey, Boolean> keyMap = new HashMap<>();
+		for(int i=0; i<=SchemaValidator.MAX_KEYS; i++){
+			keyMap.put(new AbstractEntryKey("k" + i, "key " + i, String.class, false, null), false);
+		}
+		new SchemaValidator(keyMap);
+	}
+
+	/**
+	 * Asserts that the validator of a schema and the schema test give the same result for generated data.
+	 * The data uses random subsets of the schema keys (and sometimes an unknown key) with random values.
+	 * @param schema the schema to test
+	 */
+	void assertSameResult(DataEntrySchema schema){
+		SchemaValidator validator = new SchemaValidator(schema.getKeyMap());
+		List<String> keys = new ArrayList<>(schema.getKeySet());
+		keys.add("unknown");
+		Random random = new Random(42);
+
+		int valid = 0;
+		for(int i=0; i<5000; i++){
+			Map<String, Object> data = new LinkedHashMap<>();
+			for(String key : keys){
+				boolean skip = (key.equals("unknown"))?random.nextInt(20)!=0:random.nextInt(3)==0;
+				if(!skip){
+					data.put(key, VALUES.get(random.nextInt(VALUES.size())));
+				}
+			}
+			boolean expected = schema.testSchema(data).size()==0;
+			assertEquals(data.toString(), expected, validator.isValid(data));
+			assertEquals(data.toString(), expected, schema.isValid(data));
+			if(expected){
+				valid++;
+			}
+		}
+		assertTrue("no valid data generated for schema", valid>0);
+	}
+}
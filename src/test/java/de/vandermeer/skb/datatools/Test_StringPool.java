@@ -0,0 +1,97 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.datatools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.vandermeer.skb.base.info.FileSource;
+import de.vandermeer.skb.datatool.commons.CoreSettings;
+import de.vandermeer.skb.datatool.commons.DataEntryFactory;
+import de.vandermeer.skb.datatool.commons.DataSet;
+import de.vandermeer.skb.datatool.commons.StringPool;
+import de.vandermeer.skb.datatool.entries.acronyms.AcronymEntry;
+
+/**
+ * Tests for the string pool.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.1 build 160301 (01-Mar-16) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_StringPool {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void test_Intern(){
+		StringPool pool = new StringPool();
+		String s1 = new String("abc");
+		String s2 = new String("abc");
+
+		assertSame(s1, pool.intern(s1));
+		assertSame(s1, pool.intern(s2));
+		assertEquals(1, pool.size());
+		assertEquals(1, pool.getDuplicates());
+
+		pool.clear();
+		assertEquals(0, pool.size());
+		assertEquals(0, pool.getDuplicates());
+		assertEquals(0, pool.getSavedBytes());
+		assertSame(s2, pool.intern(s2));
+	}
+
+	@Test
+	public void test_InternKeptEntries() throws IOException {
+		File file = new File(this.folder.getRoot(), "a.acr.json");
+		FileUtils.write(file, "[{\"short\": \"ABC\", \"long\": \"A B C\"}]", StandardCharsets.UTF_8.name());
+
+		CoreSettings cs = new CoreSettings(':', false, "test", this.folder.getRoot().getAbsolutePath(), null);
+		DataSet<AcronymEntry> ds = new DataSet<>(cs, new DataEntryFactory<AcronymEntry>() {
+			@Override
+			public AcronymEntry newInstance() {
+				return new AcronymEntry();
+			}
+
+			@Override
+			public AcronymEntry newInstanceLoaded(String keyStart, Map<String, Object> entryMap) throws URISyntaxException {
+				AcronymEntry ret = new AcronymEntry();
+				ret.load(keyStart, entryMap, cs);
+				return ret;
+			}
+		});
+		ds.load(Arrays.asList(new FileSource(file)), "acr");
+		AcronymEntry entry = ds.getEntries().get(0);
+
+		cs.getStringPool().clear();
+		ds.internStrings();
+		assertSame(entry.getLong(), cs.getStringPool().intern(new String("A B C")));
+		assertEquals(1, cs.getStringPool().getDuplicates());
+	}
+}